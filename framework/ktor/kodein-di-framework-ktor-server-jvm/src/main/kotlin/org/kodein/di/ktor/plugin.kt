@@ -14,12 +14,20 @@ public class DIPlugin {
     /**
      * Configure the [DI] container then put it in the [Application.attributes],
      * thus it would be easily accessible (e.g. [Application.di]
+     * and closes the [CallScope] registry of each call once it has been processed.
      */
     internal companion object Plugin : BaseApplicationPlugin<ApplicationCallPipeline, DI.MainBuilder, DIPlugin> {
         override val key: AttributeKey<DIPlugin> = AttributeKey("DIPlugin")
 
         override fun install(pipeline: ApplicationCallPipeline, configure: DI.MainBuilder.() -> Unit): DIPlugin {
             pipeline.attributes.put(KodeinDIKey, DI { configure() })
+            pipeline.intercept(ApplicationCallPipeline.Setup) {
+                try {
+                    proceed()
+                } finally {
+                    CallScope.close(call)
+                }
+            }
 
             return DIPlugin()
         }
@@ -3,10 +3,15 @@ package org.kodein.di.ktor
 import io.ktor.server.application.*
 import io.ktor.server.routing.RoutingCall
 import io.ktor.server.sessions.*
+import io.ktor.util.AttributeKey
 import org.kodein.di.bindings.Scope
 import org.kodein.di.bindings.ScopeRegistry
 import org.kodein.di.bindings.StandardScopeRegistry
-import org.kodein.di.bindings.WeakContextScope
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicLong
+import kotlin.time.Duration
+import kotlin.time.TimeSource
 
 //region Session scope
 /**
@@ -17,26 +22,149 @@ public interface KodeinDISession {
 }
 
 /**
- * DI scope that will provide singletons according to a specific [KodeinDISession]
+ * DI scope that will provide singletons according to a specific [KodeinDISession].
+ *
+ * The registries are kept in a concurrent map, so retrievals in different sessions never contend on a lock.
+ * A session registry is removed and closed (which closes its [AutoCloseable] instances) when:
+ * - the session is closed with [close] (see [clearSessionScope]),
+ * - the session has not been used for [timeToIdle],
+ * - a new session makes the scope exceed [maxSize] sessions, in which case the least recently used sessions are evicted in a batch,
+ *   down to 90% of [maxSize] (so that the cost of finding them is shared by the next new sessions).
+ *
+ * Unlike [SessionScope], which is shared by the whole JVM, an instance of this class can be created for each application:
+ *
+ * ```kotlin
+ * val sessionScope = KodeinDISessionScope(timeToIdle = 30.minutes, maxSize = 10_000)
+ * di {
+ *     bind { scoped(sessionScope).singleton { ShoppingCart() } }
+ * }
+ * ```
+ *
+ * Idle sessions are evicted when a session is retrieved, at most once every [timeToIdle]; [evictExpired] can also be called periodically.
+ *
+ * @property timeToIdle The duration after which a session that has not been used is evicted.
+ * @property maxSize The maximum number of sessions kept by this scope.
+ * @param timeSource The time source used to measure idle durations.
  */
-public object SessionScope : Scope<KodeinDISession> {
+public open class KodeinDISessionScope(
+    public val timeToIdle: Duration = Duration.INFINITE,
+    public val maxSize: Int = Int.MAX_VALUE,
+    timeSource: TimeSource = TimeSource.Monotonic,
+) : Scope<KodeinDISession> {
 
-    private val mapRegistry = HashMap<Any, ScopeRegistry>()
+    init {
+        require(timeToIdle.isPositive()) { "timeToIdle must be positive" }
+        require(maxSize > 0) { "maxSize must be positive" }
+    }
+
+    private class Entry(val registry: ScopeRegistry, @Volatile var lastAccess: Long)
+
+    private val origin = timeSource.markNow()
+    private val timeToIdleNanos = if (timeToIdle.isInfinite()) Long.MAX_VALUE else timeToIdle.inWholeNanoseconds
+
+    private val mapRegistry = ConcurrentHashMap<Any, Entry>()
+    private val lastSweep = AtomicLong(0L)
+    private val evictingLeastRecentlyUsed = AtomicBoolean(false)
+
+    /** The number of sessions kept when the least recently used ones are evicted. */
+    private val evictionTarget = maxSize - maxSize / 10
+    private val evictions = AtomicLong(0L)
+
+    /** Number of sessions that currently have a registry. */
+    public val sessionCount: Int get() = mapRegistry.size
+
+    /** Number of session registries that were evicted because they were idle or because the scope was full (closed sessions are not counted). */
+    public val evictionCount: Long get() = evictions.get()
+
+    private fun now() = origin.elapsedNow().inWholeNanoseconds
+
+    private fun Entry.isExpired(now: Long) = now - lastAccess >= timeToIdleNanos
+
+    /**
+     * Evicts the [entry] of the session [id] if it is still mapped and still [evictable], which is checked atomically with
+     * [getRegistry] touching it, so that a session retrieved concurrently is not evicted.
+     */
+    private inline fun evict(id: Any, entry: Entry, crossinline evictable: (Entry) -> Boolean) {
+        var evicted = false
+        mapRegistry.computeIfPresent(id) { _, current ->
+            if (current === entry && evictable(current)) {
+                evicted = true
+                null
+            } else current
+        }
+        if (evicted) {
+            evictions.incrementAndGet()
+            entry.registry.clear()
+        }
+    }
 
     /**
      * Reclaim the right [ScopeRegistry] regarding to the given [KodeinDISession]
      * This will help maintaining and retrieving singletons linked with the [KodeinDISession]
      */
     public override fun getRegistry(context: KodeinDISession): ScopeRegistry {
-        return synchronized(mapRegistry) {
-            mapRegistry[context.getSessionId()] ?: run {
-                val scopeRegistry = StandardScopeRegistry()
-                mapRegistry[context.getSessionId()] = scopeRegistry
-                scopeRegistry
+        val id = context.getSessionId()
+        val now = now()
+        sweepIfDue(now)
+        while (true) {
+            var created = false
+            var expired: Entry? = null
+            // Touching the entry atomically with its lookup prevents a concurrent eviction from closing it once it has been returned.
+            val entry = mapRegistry.compute(id) { _, current ->
+                when {
+                    current == null -> Entry(StandardScopeRegistry(), now).also { created = true }
+                    current.isExpired(now) -> Entry(StandardScopeRegistry(), now).also { created = true ; expired = current }
+                    else -> current.also { it.lastAccess = now }
+                }
+            }!!
+            expired?.let {
+                evictions.incrementAndGet()
+                it.registry.clear()
             }
+            // An eviction that checked the entry before it was touched may still have removed it.
+            if (mapRegistry[id] !== entry) continue
+            if (created && mapRegistry.size > maxSize) evictLeastRecentlyUsed(except = id)
+            return entry.registry
         }
     }
 
+    private fun sweepIfDue(now: Long) {
+        if (timeToIdleNanos == Long.MAX_VALUE) return
+        val last = lastSweep.get()
+        if (now - last < timeToIdleNanos || !lastSweep.compareAndSet(last, now)) return
+        evictExpired(now)
+    }
+
+    private fun evictExpired(now: Long) {
+        mapRegistry.forEach { (id, entry) -> if (entry.isExpired(now)) evict(id, entry) { it.isExpired(now) } }
+    }
+
+    /**
+     * Evicts the least recently used sessions, down to [evictionTarget], in a single sorted scan.
+     * Only one thread scans at a time: sessions created meanwhile do not wait for it, and the scope may briefly hold more than [maxSize] sessions.
+     */
+    private fun evictLeastRecentlyUsed(except: Any) {
+        if (!evictingLeastRecentlyUsed.compareAndSet(false, true)) return
+        try {
+            val excess = mapRegistry.size - evictionTarget
+            if (excess <= 0) return
+            mapRegistry.entries
+                .mapNotNull { (id, entry) -> if (id == except) null else Triple(id, entry, entry.lastAccess) }
+                .sortedBy { it.third }
+                .take(excess)
+                .forEach { (id, entry, lastAccess) -> evict(id, entry) { it.lastAccess == lastAccess } }
+        } finally {
+            evictingLeastRecentlyUsed.set(false)
+        }
+    }
+
+    /**
+     * Removes and closes the registries of all the sessions that have not been used for [timeToIdle].
+     */
+    public fun evictExpired() {
+        if (timeToIdleNanos != Long.MAX_VALUE) evictExpired(now())
+    }
+
     /**
      * Remove amd close the [ScopeRegistry] linked to the [KodeinDISession]
      * The linked singletons won't be retrievable anymore
@@ -44,38 +172,64 @@ public object SessionScope : Scope<KodeinDISession> {
      * This is usually called when closing / expiring the session
      */
     public fun close(session: KodeinDISession) {
-        synchronized(mapRegistry) {
-            val scopeRegistry = mapRegistry[session.getSessionId()]
-            if (scopeRegistry != null) {
-                mapRegistry.remove(session.getSessionId())
-                scopeRegistry.clear()
-            }
-        }
+        mapRegistry.remove(session.getSessionId())?.registry?.clear()
+    }
+
+    /**
+     * Removes and closes the registries of all the sessions, for example when the application stops.
+     */
+    public fun closeAll() {
+        mapRegistry.keys.forEach { id -> mapRegistry.remove(id)?.registry?.clear() }
     }
 }
 
 /**
- * Clear session instance with type [T] and clear the corresponding [ScopeRegistry]
+ * DI scope that will provide singletons according to a specific [KodeinDISession], shared by the whole JVM, whose sessions never expire.
+ *
+ * Use a [KodeinDISessionScope] to bound the sessions of an application.
+ */
+public object SessionScope : KodeinDISessionScope()
+
+/**
+ * Clear session instance with type [T] and clear the corresponding [ScopeRegistry] in [scope]
  * @throws IllegalStateException if no session provider registered for type [T]
  */
-public inline fun <reified T : Any> CurrentSession.clearSessionScope() {
+public inline fun <reified T : Any> CurrentSession.clearSessionScope(scope: KodeinDISessionScope = SessionScope) {
     val session = get<T>()
 
     if(session != null && session is KodeinDISession){
-        SessionScope.close(session)
+        scope.close(session)
     }
 
     this.clear<T>()
 }
 //endregion
 //region Request scope
-public object CallScope : WeakContextScope<ApplicationCall>() {
+// attribute key for storing the call scope registry in a call
+private val CallScopeRegistryKey: AttributeKey<ScopeRegistry> = AttributeKey<ScopeRegistry>("KodeinDICallScope")
+
+/**
+ * DI scope that will provide singletons according to a specific [ApplicationCall].
+ *
+ * The registry of a call is stored in its [attributes][ApplicationCall.attributes], created the first time it is needed,
+ * so retrieving it is a single attribute lookup, without any global map or lock.
+ * When the [DIPlugin] is installed, the registry is closed (which closes its [AutoCloseable] instances) as soon as the call has been processed;
+ * otherwise it is simply released along with the call.
+ */
+public object CallScope : Scope<ApplicationCall> {
     override fun getRegistry(context: ApplicationCall): ScopeRegistry {
         val actualContext = when (context) {
             is RoutingCall -> context.pipelineCall
             else -> context
         }
-        return super.getRegistry(actualContext)
+        return actualContext.attributes.computeIfAbsent(CallScopeRegistryKey) { StandardScopeRegistry() }
+    }
+
+    /**
+     * Closes the registry of the call, if it has one.
+     */
+    internal fun close(call: ApplicationCall) {
+        call.attributes.getOrNull(CallScopeRegistryKey)?.clear()
     }
 }
-//endregion
\ No newline at end of file
+//endregion
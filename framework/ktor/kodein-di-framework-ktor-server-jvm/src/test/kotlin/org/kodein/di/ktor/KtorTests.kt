@@ -5,6 +5,9 @@ import io.ktor.client.plugins.cookies.*
 import io.ktor.client.request.*
 import io.ktor.server.application.*
 import io.ktor.http.*
+import io.ktor.server.response.respondText
+import io.ktor.server.routing.get
+import io.ktor.server.routing.routing
 import io.ktor.server.testing.*
 import io.ktor.util.*
 import kotlinx.coroutines.coroutineScope
@@ -12,7 +15,17 @@ import org.junit.FixMethodOrder
 import org.junit.runners.MethodSorters
 import org.kodein.di.DI
 import org.kodein.di.LazyDI
+import org.kodein.di.bind
+import org.kodein.di.instance
+import org.kodein.di.multiton
+import org.kodein.di.on
+import org.kodein.di.scoped
+import org.kodein.di.singleton
+import java.util.Random
+import java.util.concurrent.atomic.AtomicInteger
 import kotlin.test.*
+import kotlin.time.Duration.Companion.minutes
+import kotlin.time.TestTimeSource
 
 @FixMethodOrder(MethodSorters.NAME_ASCENDING)
 class KtorTests {
@@ -178,4 +191,103 @@ class KtorTests {
 
         assertNotSame(lowerAuthor, upperAuthor, NO_RESPONSE)
     }
-}
\ No newline at end of file
+
+    @Test
+    fun test_07_sessionScopeExpiry() {
+        val timeSource = TestTimeSource()
+        val scope = KodeinDISessionScope(timeToIdle = 10.minutes, timeSource = timeSource)
+        val di = DI.direct { bind<Random> { scoped(scope).singleton { Random() } } }
+
+        val first = di.on(MockSession(1)).instance<Random>()
+        timeSource += 9.minutes
+        assertSame(first, di.on(MockSession(1)).instance<Random>())
+        assertEquals(1, scope.sessionCount)
+
+        timeSource += 10.minutes
+        assertNotSame(first, di.on(MockSession(1)).instance<Random>())
+        assertEquals(1, scope.sessionCount)
+        assertEquals(1, scope.evictionCount)
+
+        di.on(MockSession(2)).instance<Random>()
+        timeSource += 10.minutes
+        scope.evictExpired()
+        assertEquals(0, scope.sessionCount)
+        assertEquals(3, scope.evictionCount)
+    }
+
+    @Test
+    fun test_08_sessionScopeMaxSize() {
+        val timeSource = TestTimeSource()
+        val scope = KodeinDISessionScope(maxSize = 2, timeSource = timeSource)
+        val closed = ArrayList<Int>()
+        val di = DI.direct {
+            bind<AutoCloseable> { scoped(scope).multiton { id: Int -> AutoCloseable { closed += id } } }
+        }
+
+        di.on(MockSession(1)).instance<Int, AutoCloseable>(arg = 1)
+        timeSource += 1.minutes
+        di.on(MockSession(2)).instance<Int, AutoCloseable>(arg = 2)
+        timeSource += 1.minutes
+        di.on(MockSession(1)).instance<Int, AutoCloseable>(arg = 1)
+        timeSource += 1.minutes
+        di.on(MockSession(3)).instance<Int, AutoCloseable>(arg = 3)
+
+        assertEquals(listOf(2), closed)
+        assertEquals(2, scope.sessionCount)
+        assertEquals(1, scope.evictionCount)
+
+        scope.closeAll()
+        assertEquals(listOf(1, 2, 3), closed.sorted())
+        assertEquals(0, scope.sessionCount)
+    }
+
+    @Test
+    fun test_09_callScopeIsClosedWhenCallCompletes(): Unit = testApplication {
+        val opened = AtomicInteger()
+        val closed = AtomicInteger()
+
+        application {
+            di {
+                bind<AutoCloseable> { scoped(CallScope).singleton { opened.incrementAndGet() ; AutoCloseable { closed.incrementAndGet() } } }
+            }
+            routing {
+                get("/closeable") {
+                    val first by closestDI().on(call).instance<AutoCloseable>()
+                    val second by closestDI().on(call).instance<AutoCloseable>()
+                    call.respondText("${first === second}")
+                }
+            }
+        }
+
+        assertEquals("true", client.get("/closeable").body())
+        assertEquals("true", client.get("/closeable").body())
+        assertEquals(2, opened.get())
+        assertEquals(2, closed.get())
+    }
+
+    @Test
+    fun test_10_sessionScopeEvictsLeastRecentlyUsedInBatch() {
+        val timeSource = TestTimeSource()
+        val scope = KodeinDISessionScope(maxSize = 20, timeSource = timeSource)
+        val closed = ArrayList<Int>()
+        val di = DI.direct {
+            bind<AutoCloseable> { scoped(scope).multiton { id: Int -> AutoCloseable { closed += id } } }
+        }
+
+        (1..20).forEach {
+            di.on(MockSession(it)).instance<Int, AutoCloseable>(arg = it)
+            timeSource += 1.minutes
+        }
+        di.on(MockSession(1)).instance<Int, AutoCloseable>(arg = 1)
+        timeSource += 1.minutes
+        assertEquals(emptyList(), closed)
+
+        di.on(MockSession(21)).instance<Int, AutoCloseable>(arg = 21)
+        assertEquals(listOf(2, 3, 4), closed.sorted())
+        assertEquals(18, scope.sessionCount)
+        assertEquals(3, scope.evictionCount)
+
+        di.on(MockSession(22)).instance<Int, AutoCloseable>(arg = 22)
+        assertEquals(3, scope.evictionCount)
+    }
+}
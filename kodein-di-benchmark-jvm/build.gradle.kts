@@ -0,0 +1,19 @@
+plugins {
+    kodein.jvm
+    alias(libs.plugins.jmh)
+}
+
+dependencies {
+    jmhImplementation(projects.kodeinDi)
+    jmhImplementation(projects.kodeinDiJxinjectJvm)
+}
+
+jmh {
+    jmhVersion = libs.versions.jmh.get()
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("results/jmh/results.json")
+    (findProperty("jmh.includes") as String?)?.let { includes = listOf(it) }
+    fork = 1
+    warmupIterations = 3
+    iterations = 5
+}
@@ -0,0 +1,45 @@
+package org.kodein.di.benchmark
+
+import org.kodein.di.*
+import org.kodein.di.jxinject.jx
+import org.kodein.di.jxinject.jxInjectorModule
+import org.openjdk.jmh.annotations.*
+import org.openjdk.jmh.annotations.Scope
+import java.util.concurrent.TimeUnit
+import javax.inject.Inject
+
+/**
+ * Measures the construction of objects with their dependencies, with `new` and with JSR-330 injection.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+open class ConstructorBenchmark {
+
+    class InjectedController @Inject constructor(val service: Service, val repository: Repository)
+
+    class FieldInjectedController {
+        @Inject lateinit var service: Service
+        @Inject lateinit var repository: Repository
+    }
+
+    lateinit var di: DirectDI
+
+    @Setup
+    fun setUp() {
+        di = DI.direct {
+            import(jxInjectorModule)
+            bind<Repository>() with singleton { Repository() }
+            bind<Service>() with singleton { Service(instance()) }
+        }
+    }
+
+    @Benchmark
+    fun newConstructor(): Controller = di.new(::Controller)
+
+    @Benchmark
+    fun jxConstructor(): InjectedController = di.jx.newInstance()
+
+    @Benchmark
+    fun jxFields(): FieldInjectedController = di.jx.newInstance()
+}
@@ -0,0 +1,34 @@
+package org.kodein.di.benchmark
+
+import org.kodein.di.DI
+import org.kodein.di.bind
+import org.kodein.di.instance
+import org.kodein.di.provider
+import org.kodein.di.singleton
+import org.openjdk.jmh.annotations.*
+import java.util.concurrent.TimeUnit
+
+/**
+ * Measures the time to build a container, depending on its number of bindings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+open class ContainerBuildBenchmark {
+
+    @Param("10", "100", "1000")
+    var bindingCount: Int = 0
+
+    @Param("false", "true")
+    var freezeTree: Boolean = false
+
+    @Benchmark
+    fun build(): DI = DI {
+        freezeTree = this@ContainerBuildBenchmark.freezeTree
+        bind<Repository>() with singleton { Repository() }
+        for (i in 0 until bindingCount) {
+            if (i % 2 == 0) bind<Service>(tag = i) with singleton { Service(instance()) }
+            else bind<Service>(tag = i) with provider { Service(instance()) }
+        }
+    }
+}
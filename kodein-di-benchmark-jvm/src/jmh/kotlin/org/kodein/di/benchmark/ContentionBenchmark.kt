@@ -0,0 +1,55 @@
+package org.kodein.di.benchmark
+
+import org.kodein.di.*
+import org.openjdk.jmh.annotations.*
+import org.openjdk.jmh.annotations.Scope
+import java.util.concurrent.TimeUnit
+
+/**
+ * Measures the retrieval of bindings by many threads at once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(8)
+open class ContentionBenchmark {
+
+    @State(Scope.Thread)
+    open class ThreadArgs {
+        var counter = 0
+        fun next(): Int = (counter++) and 1023
+    }
+
+    lateinit var di: DirectDI
+
+    @Setup
+    fun setUp() {
+        di = DI.direct {
+            bind<Repository>() with singleton { Repository() }
+            bind<Service>() with provider { Service(instance()) }
+            bind<Name>() with multiton { i: Int -> Name("name $i") }
+        }
+    }
+
+    @Benchmark
+    fun singleton(): Repository = di.instance()
+
+    @Benchmark
+    fun provider(): Service = di.instance()
+
+    @Benchmark
+    fun multiton(args: ThreadArgs): Name = di.instance(arg = args.next())
+
+    /**
+     * Each invocation builds a new container, so that singletons are created concurrently by all threads.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    fun concurrentCreation(): Service {
+        val fresh = DI.direct {
+            bind<Repository>() with singleton { Repository() }
+            bind<Service>() with singleton { Service(instance()) }
+        }
+        return fresh.instance()
+    }
+}
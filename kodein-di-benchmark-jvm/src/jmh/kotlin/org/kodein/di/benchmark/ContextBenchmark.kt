@@ -0,0 +1,50 @@
+package org.kodein.di.benchmark
+
+import org.kodein.di.*
+import org.kodein.di.bindings.ScopeRegistry
+import org.kodein.di.bindings.StandardScopeRegistry
+import org.kodein.di.bindings.UnboundedScope
+import org.openjdk.jmh.annotations.*
+import org.openjdk.jmh.annotations.Scope
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.TimeUnit
+
+/**
+ * Measures the retrieval of contexted and scoped bindings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+open class ContextBenchmark {
+
+    object SessionScope : org.kodein.di.bindings.Scope<Session> {
+        private val registries = ConcurrentHashMap<String, ScopeRegistry>()
+        override fun getRegistry(context: Session): ScopeRegistry = registries.getOrPut(context.id) { StandardScopeRegistry() }
+    }
+
+    lateinit var di: DirectDI
+    val session = Session("session")
+    val request = Request(session)
+
+    @Setup
+    fun setUp() {
+        di = DI.direct {
+            bind<Name>() with contexted<Session>().provider { Name(context.id) }
+            bind<Service>() with scoped(SessionScope).singleton { Service(Repository()) }
+            bind<Repository>() with scoped(UnboundedScope()).singleton { Repository() }
+            registerContextTranslator { r: Request -> r.session }
+        }
+    }
+
+    @Benchmark
+    fun contextedProvider(): Name = di.on(session).instance()
+
+    @Benchmark
+    fun scopedSingleton(): Service = di.on(session).instance()
+
+    @Benchmark
+    fun translatedScopedSingleton(): Service = di.on(request).instance()
+
+    @Benchmark
+    fun unboundedScopedSingleton(): Repository = di.instance()
+}
@@ -0,0 +1,49 @@
+package org.kodein.di.benchmark
+
+import org.kodein.di.*
+import org.openjdk.jmh.annotations.*
+import org.openjdk.jmh.annotations.Scope
+import java.util.concurrent.TimeUnit
+
+/**
+ * Measures the lookups that do not exactly match a binding key: sub-types, searches and multiple results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+open class LookupBenchmark {
+
+    @Param("false", "true")
+    var freezeTree: Boolean = false
+
+    @Param("10", "1000")
+    var bindingCount: Int = 0
+
+    lateinit var di: DirectDI
+
+    @Setup
+    fun setUp() {
+        val freeze = freezeTree
+        di = DI.direct {
+            freezeTree = freeze
+            for (i in 0 until bindingCount) {
+                bind<Service>(tag = i) with singleton { Service(Repository()) }
+            }
+            bind<FullName>() with singleton { FullName("Salomon", "BRYS") }
+            bind<Name>(tag = "all") with provider { Name("Laila") }
+            bind<FullName>(tag = "all") with provider { FullName("Salomon", "BRYS") }
+        }
+    }
+
+    @Benchmark
+    fun superType(): IName = di.instance()
+
+    @Benchmark
+    fun notFound(): IName? = di.instanceOrNull(tag = "none")
+
+    @Benchmark
+    fun allInstances(): List<Name> = di.allInstances(tag = "all")
+
+    @Benchmark
+    fun search(): Int = di.container.tree.findAllBindings { +tag("all") }.size
+}
@@ -0,0 +1,50 @@
+package org.kodein.di.benchmark
+
+import org.kodein.di.*
+import org.openjdk.jmh.annotations.*
+import org.openjdk.jmh.annotations.Scope
+import java.util.concurrent.TimeUnit
+
+/**
+ * Measures the retrieval of the standard bindings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+open class RetrievalBenchmark {
+
+    lateinit var di: DirectDI
+
+    @Setup
+    fun setUp() {
+        di = DI.direct {
+            bind<Repository>() with singleton { Repository() }
+            bind<Service>() with provider { Service(instance()) }
+            bind<Controller>() with singleton { Controller(instance(), instance()) }
+            bind<Name>() with factory { name: String -> Name(name) }
+            bind<FullName>() with multiton { name: String -> FullName(name, "BRYS") }
+            bind<String>(tag = "constant") with instance("Salomon")
+        }
+    }
+
+    @Benchmark
+    fun instance(): String = di.instance(tag = "constant")
+
+    @Benchmark
+    fun singleton(): Repository = di.instance()
+
+    @Benchmark
+    fun singletonWithDependencies(): Controller = di.instance()
+
+    @Benchmark
+    fun provider(): Service = di.instance()
+
+    @Benchmark
+    fun factory(): Name = di.instance(arg = "Salomon")
+
+    @Benchmark
+    fun multiton(): FullName = di.instance(arg = "Salomon")
+
+    @Benchmark
+    fun providerFunction(): () -> Service = di.provider()
+}
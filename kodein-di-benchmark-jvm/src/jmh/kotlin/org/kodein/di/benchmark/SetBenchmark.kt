@@ -0,0 +1,39 @@
+package org.kodein.di.benchmark
+
+import org.kodein.di.*
+import org.openjdk.jmh.annotations.*
+import org.openjdk.jmh.annotations.Scope
+import java.util.concurrent.TimeUnit
+
+/**
+ * Measures the retrieval of set bindings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+open class SetBenchmark {
+
+    @Param("4", "64")
+    var elementCount: Int = 0
+
+    lateinit var di: DirectDI
+
+    @Setup
+    fun setUp() {
+        val count = elementCount
+        di = DI.direct {
+            bindSet<IName>(tag = "singletons") {
+                for (i in 0 until count) addSingleton { Name("singleton $i") }
+            }
+            bindSet<IName>(tag = "providers") {
+                for (i in 0 until count) addProvider { Name("provider $i") }
+            }
+        }
+    }
+
+    @Benchmark
+    fun singletonSet(): Set<IName> = di.instance(tag = "singletons")
+
+    @Benchmark
+    fun providerSet(): Set<IName> = di.instance(tag = "providers")
+}
@@ -0,0 +1,75 @@
+package org.kodein.di.benchmark
+
+import org.kodein.di.bindings.ScopeRegistry
+import org.kodein.di.bindings.StandardScopeRegistry
+import org.kodein.di.bindings.WeakContextScope
+import org.openjdk.jmh.annotations.*
+import org.openjdk.jmh.annotations.Scope
+import java.util.*
+import java.util.concurrent.TimeUnit
+
+/**
+ * Compares the retrieval of context registries by [WeakContextScope] with its former implementation, a [WeakHashMap] whose writers synchronize on the map,
+ * from 1 to 64 threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+open class WeakContextScopeBenchmark {
+
+    class SynchronizedWeakHashMapScope : org.kodein.di.bindings.Scope<Any> {
+        private val map = WeakHashMap<Any, ScopeRegistry>()
+
+        override fun getRegistry(context: Any): ScopeRegistry {
+            map[context]?.let { return it }
+            synchronized(map) {
+                return map.getOrPut(context) { StandardScopeRegistry() }
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    open class ThreadArgs {
+        var counter = 0
+        fun next(): Int = (counter++) and 1023
+    }
+
+    val contexts = List(1024) { Any() }
+    val current = WeakContextScope<Any>()
+    val synchronizedWeakHashMap = SynchronizedWeakHashMapScope()
+
+    @Setup
+    fun setUp() {
+        contexts.forEach {
+            current.getRegistry(it)
+            synchronizedWeakHashMap.getRegistry(it)
+        }
+    }
+
+    @Benchmark @Threads(1)
+    fun current01(args: ThreadArgs): ScopeRegistry = current.getRegistry(contexts[args.next()])
+
+    @Benchmark @Threads(8)
+    fun current08(args: ThreadArgs): ScopeRegistry = current.getRegistry(contexts[args.next()])
+
+    @Benchmark @Threads(64)
+    fun current64(args: ThreadArgs): ScopeRegistry = current.getRegistry(contexts[args.next()])
+
+    @Benchmark @Threads(1)
+    fun synchronizedWeakHashMap01(args: ThreadArgs): ScopeRegistry = synchronizedWeakHashMap.getRegistry(contexts[args.next()])
+
+    @Benchmark @Threads(8)
+    fun synchronizedWeakHashMap08(args: ThreadArgs): ScopeRegistry = synchronizedWeakHashMap.getRegistry(contexts[args.next()])
+
+    @Benchmark @Threads(64)
+    fun synchronizedWeakHashMap64(args: ThreadArgs): ScopeRegistry = synchronizedWeakHashMap.getRegistry(contexts[args.next()])
+
+    /**
+     * Each invocation registers a new context, that is collected afterwards, so that registries are created and expunged concurrently.
+     */
+    @Benchmark @Threads(8)
+    fun currentChurn(): ScopeRegistry = current.getRegistry(Any())
+
+    @Benchmark @Threads(8)
+    fun synchronizedWeakHashMapChurn(): ScopeRegistry = synchronizedWeakHashMap.getRegistry(Any())
+}
@@ -0,0 +1,12 @@
+package org.kodein.di.benchmark
+
+interface IName { val name: String }
+open class Name(override val name: String) : IName
+class FullName(name: String, val lastName: String) : Name(name)
+
+class Repository
+class Service(val repository: Repository)
+class Controller(val service: Service, val repository: Repository)
+
+class Request(val session: Session)
+class Session(val id: String)
@@ -0,0 +1,27 @@
+plugins {
+    kodein.library.mpp
+    alias(libs.plugins.kotlinx.atomicfu)
+}
+
+kotlin.kodein {
+    all()
+
+    common {
+        mainDependencies {
+            api(projects.kodeinDi)
+            implementation(libs.kotlinx.coroutines.core)
+        }
+        testDependencies {
+            implementation(projects.testUtils)
+        }
+    }
+
+    jvm {
+        target.setCompileClasspath()
+    }
+}
+
+kodeinUpload {
+    name = "Kodein-Coroutines"
+    description = "Kodein extension that binds and retrieves instances with suspending functions"
+}
@@ -0,0 +1,104 @@
+package org.kodein.di.coroutines.internal
+
+import kotlinx.atomicfu.locks.SynchronizedObject
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.currentCoroutineContext
+import kotlinx.coroutines.withContext
+import org.kodein.di.DI
+import org.kodein.di.coroutines.SuspendFactory
+import org.kodein.di.coroutines.SuspendProvider
+import org.kodein.di.internal.maySynchronized
+import kotlin.concurrent.Volatile
+import kotlin.coroutines.AbstractCoroutineContextElement
+import kotlin.coroutines.CoroutineContext
+
+/**
+ * A value that is created once by a suspending function.
+ *
+ * The first caller creates the value, while concurrent callers suspend (without blocking their thread) until it is created.
+ * A waiting caller can be cancelled.
+ * If the creation fails, the exception is only thrown to the caller that created the value, and a waiting caller tries to create it again.
+ * If the creation awaits its own value, directly or through other suspending bindings, a [DI.DependencyLoopException] is thrown.
+ */
+@PublishedApi
+internal class SuspendLazy<out T>(private val initializer: suspend () -> T) : SuspendProvider<T> {
+
+    private val _lock = SynchronizedObject()
+
+    @Volatile
+    private var _value: Any? = Unset
+
+    /** Completed when the current creation ends, or null if no one is creating the value. Only accessed while holding the lock. */
+    private var _creation: CompletableDeferred<Unit>? = null
+
+    @Suppress("UNCHECKED_CAST")
+    override suspend fun invoke(): T {
+        while (true) {
+            val value = _value
+            if (value !== Unset) return value as T
+
+            val creator = currentCoroutineContext()[Creator]
+            if (creator != null && this in creator)
+                throw DI.DependencyLoopException("Dependency recursion: this suspending value is awaited by its own creation.")
+
+            val creation = CompletableDeferred<Unit>()
+            val current = maySynchronized(_lock) {
+                when {
+                    _value !== Unset -> null
+                    _creation == null -> creation.also { _creation = it }
+                    else -> _creation
+                }
+            }
+            if (current == null) continue
+            if (current !== creation) {
+                current.await()
+                continue
+            }
+
+            try {
+                val created = withContext(Creator(this, creator)) { initializer() }
+                maySynchronized(_lock) { _value = created }
+                return created
+            } finally {
+                maySynchronized(_lock) { _creation = null }
+                creation.complete(Unit)
+            }
+        }
+    }
+
+    /** The values that the current coroutine is creating, each of them awaiting the creation of the next. */
+    private class Creator(val lazy: SuspendLazy<*>, val parent: Creator?) : AbstractCoroutineContextElement(Creator) {
+        companion object Key : CoroutineContext.Key<Creator>
+
+        operator fun contains(lazy: SuspendLazy<*>): Boolean = generateSequence(this) { it.parent }.any { it.lazy === lazy }
+    }
+
+    private object Unset
+}
+
+@PublishedApi
+internal class SuspendProviderImpl<out T>(private val creator: suspend () -> T) : SuspendProvider<T> {
+    override suspend fun invoke(): T = creator()
+}
+
+@PublishedApi
+internal class SuspendFactoryImpl<in A, out T>(private val creator: suspend (A) -> T) : SuspendFactory<A, T> {
+    override suspend fun invoke(arg: A): T = creator(arg)
+}
+
+/**
+ * Creates one value per argument, each with the guarantees of a [SuspendLazy].
+ */
+@PublishedApi
+internal class SuspendMultiton<in A : Any, out T>(private val creator: suspend (A) -> T) : SuspendFactory<A, T> {
+
+    private val _lock = SynchronizedObject()
+
+    /** Only accessed while holding the lock: the lazy is only looked up there, its value is awaited outside of it. */
+    private val _values = HashMap<Any, SuspendLazy<T>>()
+
+    override suspend fun invoke(arg: A): T {
+        val lazy = maySynchronized(_lock) { _values.getOrPut(arg) { SuspendLazy { creator(arg) } } }
+        return lazy.invoke()
+    }
+}
@@ -0,0 +1,169 @@
+package org.kodein.di.coroutines
+
+import org.kodein.di.*
+import org.kodein.di.coroutines.internal.SuspendFactoryImpl
+import org.kodein.di.coroutines.internal.SuspendLazy
+import org.kodein.di.coroutines.internal.SuspendMultiton
+import org.kodein.di.coroutines.internal.SuspendProviderImpl
+
+/**
+ * Provides instances with a suspending function.
+ *
+ * Bound by the `bindSuspend*` functions, and retrieved with [awaitInstance].
+ *
+ * @param T The provided type.
+ */
+public interface SuspendProvider<out T> {
+    public suspend operator fun invoke(): T
+}
+
+/**
+ * Provides instances for an argument with a suspending function.
+ *
+ * Bound by the `bindSuspend*` functions, and retrieved with [awaitInstance].
+ *
+ * @param A The argument type.
+ * @param T The provided type.
+ */
+public interface SuspendFactory<in A, out T> {
+    public suspend operator fun invoke(arg: A): T
+}
+
+/**
+ * Binds a suspending singleton: will create an instance on first request and will subsequently always return the same instance.
+ *
+ * Concurrent first requests do not block: they suspend until the instance is created.
+ * The binding is a `SuspendProvider<T>`, which must be retrieved with [awaitInstance].
+ *
+ * T generics will be erased!
+ *
+ * @param T The created type.
+ * @param creator The suspending function that will be called the first time an instance is requested.
+ * Guaranteed to be called only once, unless it fails. Should create a new instance.
+ */
+public inline fun <reified T : Any> DI.Builder.bindSuspendSingleton(
+    tag: Any? = null,
+    overrides: Boolean? = null,
+    noinline creator: suspend DirectDI.() -> T,
+): Unit = bindSingleton<SuspendProvider<T>>(tag = tag, overrides = overrides) {
+    val di: DirectDI = this
+    SuspendLazy { di.creator() }
+}
+
+/**
+ * Binds a suspending provider: each time an instance is needed, the suspending function will be called.
+ *
+ * The binding is a `SuspendProvider<T>`, which must be retrieved with [awaitInstance].
+ *
+ * T generics will be erased!
+ *
+ * @param T The created type.
+ * @param creator The suspending function that will be called each time an instance is requested. Should create a new instance.
+ */
+public inline fun <reified T : Any> DI.Builder.bindSuspendProvider(
+    tag: Any? = null,
+    overrides: Boolean? = null,
+    noinline creator: suspend DirectDI.() -> T,
+): Unit = bindSingleton<SuspendProvider<T>>(tag = tag, overrides = overrides, sync = false) {
+    val di: DirectDI = this
+    SuspendProviderImpl { di.creator() }
+}
+
+/**
+ * Binds a suspending factory: each time an instance is needed, the suspending function will be called with the given argument.
+ *
+ * The binding is a `SuspendFactory<A, T>`, which must be retrieved with [awaitInstance].
+ *
+ * A & T generics will be erased!
+ *
+ * @param A The argument type.
+ * @param T The created type.
+ * @param creator The suspending function that will be called each time an instance is requested. Should create a new instance.
+ */
+public inline fun <reified A : Any, reified T : Any> DI.Builder.bindSuspendFactory(
+    tag: Any? = null,
+    overrides: Boolean? = null,
+    noinline creator: suspend DirectDI.(A) -> T,
+): Unit = bindSingleton<SuspendFactory<A, T>>(tag = tag, overrides = overrides, sync = false) {
+    val di: DirectDI = this
+    SuspendFactoryImpl { arg: A -> di.creator(arg) }
+}
+
+/**
+ * Binds a suspending multiton: will create an instance on first request for each argument, and will subsequently always return the same instance for the same argument.
+ *
+ * Concurrent first requests for the same argument do not block: they suspend until the instance is created.
+ * The binding is a `SuspendFactory<A, T>`, which must be retrieved with [awaitInstance].
+ *
+ * A & T generics will be erased!
+ *
+ * @param A The argument type.
+ * @param T The created type.
+ * @param creator The suspending function that will be called the first time an instance is requested for an argument.
+ * Guaranteed to be called only once per argument, unless it fails. Should create a new instance.
+ */
+public inline fun <reified A : Any, reified T : Any> DI.Builder.bindSuspendMultiton(
+    tag: Any? = null,
+    overrides: Boolean? = null,
+    noinline creator: suspend DirectDI.(A) -> T,
+): Unit = bindSingleton<SuspendFactory<A, T>>(tag = tag, overrides = overrides) {
+    val di: DirectDI = this
+    SuspendMultiton { arg: A -> di.creator(arg) }
+}
+
+/**
+ * Gets an instance of `T` from a suspending binding (e.g. bound with [bindSuspendSingleton] or [bindSuspendProvider]), suspending until it is created.
+ *
+ * T generics will be erased!
+ *
+ * @param T The type of object to retrieve.
+ * @param tag The bound tag, if any.
+ * @return An instance.
+ * @throws DI.NotFoundException if no suspending provider was found.
+ * @throws DI.DependencyLoopException When calling the suspending provider, if the instance construction triggered a dependency loop.
+ */
+public suspend inline fun <reified T : Any> DirectDIAware.awaitInstance(tag: Any? = null): T =
+    instance<SuspendProvider<T>>(tag = tag).invoke()
+
+/**
+ * Gets an instance of `T` for the given argument from a suspending binding (e.g. bound with [bindSuspendFactory] or [bindSuspendMultiton]), suspending until it is created.
+ *
+ * A & T generics will be erased!
+ *
+ * @param A The type of argument the factory takes.
+ * @param T The type of object to retrieve.
+ * @param tag The bound tag, if any.
+ * @param arg The argument to give to the suspending factory.
+ * @return An instance.
+ * @throws DI.NotFoundException if no suspending factory was found.
+ */
+public suspend inline fun <reified A : Any, reified T : Any> DirectDIAware.awaitInstance(tag: Any? = null, arg: A): T =
+    instance<SuspendFactory<A, T>>(tag = tag).invoke(arg)
+
+/**
+ * Gets an instance of `T` from a suspending binding (e.g. bound with [bindSuspendSingleton] or [bindSuspendProvider]), suspending until it is created.
+ *
+ * T generics will be erased!
+ *
+ * @param T The type of object to retrieve.
+ * @param tag The bound tag, if any.
+ * @return An instance.
+ * @throws DI.NotFoundException if no suspending provider was found.
+ */
+public suspend inline fun <reified T : Any> DIAware.awaitInstance(tag: Any? = null): T =
+    direct.awaitInstance(tag = tag)
+
+/**
+ * Gets an instance of `T` for the given argument from a suspending binding (e.g. bound with [bindSuspendFactory] or [bindSuspendMultiton]), suspending until it is created.
+ *
+ * A & T generics will be erased!
+ *
+ * @param A The type of argument the factory takes.
+ * @param T The type of object to retrieve.
+ * @param tag The bound tag, if any.
+ * @param arg The argument to give to the suspending factory.
+ * @return An instance.
+ * @throws DI.NotFoundException if no suspending factory was found.
+ */
+public suspend inline fun <reified A : Any, reified T : Any> DIAware.awaitInstance(tag: Any? = null, arg: A): T =
+    direct.awaitInstance(tag = tag, arg = arg)
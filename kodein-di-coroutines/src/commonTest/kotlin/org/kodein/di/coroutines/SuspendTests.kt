@@ -0,0 +1,157 @@
+package org.kodein.di.coroutines
+
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.Job
+import org.kodein.di.*
+import org.kodein.di.test.FixMethodOrder
+import org.kodein.di.test.MethodSorters
+import org.kodein.di.test.Person
+import kotlin.coroutines.Continuation
+import kotlin.coroutines.CoroutineContext
+import kotlin.coroutines.EmptyCoroutineContext
+import kotlin.coroutines.resume
+import kotlin.coroutines.startCoroutine
+import kotlin.coroutines.suspendCoroutine
+import kotlin.test.*
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+class SuspendTests {
+
+    /** Starts a coroutine in the current thread, and returns its result once it has completed. */
+    private fun <T> launch(context: CoroutineContext = EmptyCoroutineContext, block: suspend () -> T): () -> Result<T>? {
+        var result: Result<T>? = null
+        block.startCoroutine(Continuation(context) { result = it })
+        return { result }
+    }
+
+    private class Gate {
+        private val waiting = ArrayList<Continuation<Unit>>()
+        suspend fun await() = suspendCoroutine { waiting += it }
+        fun open() = waiting.toList().also { waiting.clear() }.forEach { it.resume(Unit) }
+    }
+
+    @Test
+    fun test_00_SuspendSingleton() {
+        var count = 0
+        val gate = Gate()
+
+        val di = DI {
+            bindSuspendSingleton { ++count ; gate.await() ; Person("Salomon") }
+        }
+
+        val first = launch { di.direct.awaitInstance<Person>() }
+        val second = launch { di.awaitInstance<Person>() }
+
+        assertNull(first())
+        assertNull(second())
+        assertEquals(1, count)
+
+        gate.open()
+
+        assertEquals(Person("Salomon"), first()!!.getOrThrow())
+        assertSame(first()!!.getOrThrow(), second()!!.getOrThrow())
+        assertSame(first()!!.getOrThrow(), launch { di.awaitInstance<Person>() }()!!.getOrThrow())
+        assertEquals(1, count)
+    }
+
+    @Test
+    fun test_01_SuspendSingletonFailureIsRetried() {
+        var count = 0
+        val gate = Gate()
+
+        val di = DI {
+            bindSuspendSingleton {
+                gate.await()
+                if (++count == 1) error("Cannot create Salomon")
+                Person("Salomon")
+            }
+        }
+
+        val first = launch { di.awaitInstance<Person>() }
+        val second = launch { di.awaitInstance<Person>() }
+
+        gate.open()
+        assertEquals("Cannot create Salomon", first()!!.exceptionOrNull()?.message)
+        assertNull(second())
+
+        gate.open()
+        assertEquals(Person("Salomon"), second()!!.getOrThrow())
+        assertEquals(2, count)
+    }
+
+    @Test
+    fun test_02_SuspendProviderAndFactory() {
+        val di = DI {
+            bindSuspendProvider { Person("Salomon") }
+            bindSuspendFactory { name: String -> Person(name) }
+        }
+
+        val salomon1 = launch { di.awaitInstance<Person>() }()!!.getOrThrow()
+        val salomon2 = launch { di.awaitInstance<Person>() }()!!.getOrThrow()
+        assertEquals(Person("Salomon"), salomon1)
+        assertNotSame(salomon1, salomon2)
+
+        val laila1 = launch { di.awaitInstance<String, Person>(arg = "Laila") }()!!.getOrThrow()
+        val laila2 = launch { di.awaitInstance<String, Person>(arg = "Laila") }()!!.getOrThrow()
+        assertEquals(Person("Laila"), laila1)
+        assertNotSame(laila1, laila2)
+    }
+
+    @Test
+    fun test_03_SuspendMultiton() {
+        var count = 0
+
+        val di = DI {
+            bindSuspendMultiton { name: String -> ++count ; Person(name) }
+        }
+
+        val laila1 = launch { di.awaitInstance<String, Person>(arg = "Laila") }()!!.getOrThrow()
+        val laila2 = launch { di.awaitInstance<String, Person>(arg = "Laila") }()!!.getOrThrow()
+        val salomon = launch { di.awaitInstance<String, Person>(arg = "Salomon") }()!!.getOrThrow()
+
+        assertSame(laila1, laila2)
+        assertEquals(Person("Salomon"), salomon)
+        assertEquals(2, count)
+    }
+
+    @Test
+    fun test_04_SuspendSingletonRetrievesDependencies() {
+        val di = DI {
+            bindInstance { "Salomon" }
+            bindSuspendSingleton { Person(instance()) }
+        }
+
+        assertEquals(Person("Salomon"), launch { di.awaitInstance<Person>() }()!!.getOrThrow())
+    }
+
+    @Test
+    fun test_05_SuspendSingletonLoop() {
+        val di = DI {
+            bindSuspendSingleton { Person(awaitInstance<String>()) }
+            bindSuspendSingleton { awaitInstance<Person>().name!! }
+        }
+
+        val result = launch { di.awaitInstance<Person>() }()!!
+        assertTrue(result.exceptionOrNull() is DI.DependencyLoopException)
+    }
+
+    @Test
+    fun test_06_SuspendSingletonWaiterIsCancellable() {
+        val gate = Gate()
+
+        val di = DI {
+            bindSuspendSingleton { gate.await() ; Person("Salomon") }
+        }
+
+        val first = launch { di.awaitInstance<Person>() }
+        val job = Job()
+        val second = launch(job) { di.awaitInstance<Person>() }
+
+        job.cancel()
+        assertTrue(second()!!.exceptionOrNull() is CancellationException)
+        assertNull(first())
+
+        gate.open()
+        assertEquals(Person("Salomon"), first()!!.getOrThrow())
+    }
+}
@@ -2,13 +2,36 @@ plugins {
     kodein.library.jvm
 }
 
+// Tests of the build time index, compiled with its annotation processor.
+// The other tests are compiled without it, so that they cover the introspection that is used without the processor.
+val indexedTest: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output + sourceSets.test.get().output
+    runtimeClasspath += sourceSets.main.get().output + sourceSets.test.get().output
+}
+
+configurations {
+    named(indexedTest.implementationConfigurationName) { extendsFrom(configurations.testImplementation.get()) }
+    named(indexedTest.runtimeOnlyConfigurationName) { extendsFrom(configurations.testRuntimeOnly.get()) }
+}
+
 dependencies {
     api(projects.kodeinDi)
     api(libs.javax.inject)
 
     testImplementation(projects.testUtils)
+    indexedTest.annotationProcessorConfigurationName(projects.kodeinDiJxinjectProcessorJvm)
 }
 
+val indexedTestTask = tasks.register<Test>("indexedTest") {
+    description = "Runs the tests of the build time index."
+    group = LifecycleBasePlugin.VERIFICATION_GROUP
+    testClassesDirs = indexedTest.output.classesDirs
+    classpath = indexedTest.runtimeClasspath
+    shouldRunAfter(tasks.test)
+}
+
+tasks.check { dependsOn(indexedTestTask) }
+
 kodeinUpload {
     name = "Kodein-JxInject"
     description = "Kodein extension that enables to auto-inject with JSR 330 javax.inject annotations"
@@ -0,0 +1,88 @@
+package org.kodein.di.jxinject;
+
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import static org.junit.Assert.*;
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class InjectJvmTests_07_Index {
+
+    public static class T00Parent {
+        @Inject @Named("lastname") private String lastname;
+
+        public String getLastname() {
+            return lastname;
+        }
+    }
+
+    public static class T00 extends T00Parent {
+        private final String firstname;
+        private int[] numbers;
+
+        @Inject
+        public T00(String firstname) {
+            this.firstname = firstname;
+        }
+
+        public T00() {
+            this.firstname = null;
+        }
+
+        @Inject
+        private void setNumbers(@OrNull @Named("nope") int[] numbers) {
+            this.numbers = numbers == null ? new int[] { 42 } : numbers;
+        }
+    }
+
+    public static class T01 {
+        private final String firstname;
+
+        public T01(String firstname) {
+            this.firstname = firstname;
+        }
+    }
+
+    private static String readIndex(Class<?> cls) throws IOException {
+        try (InputStream stream = InjectJvmTests_07_Index.class.getClassLoader().getResourceAsStream("META-INF/kodein-di/jxinject/" + cls.getName())) {
+            assertNotNull(stream);
+            return new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8)).lines().collect(Collectors.joining("\n"));
+        }
+    }
+
+    @Test
+    public void test_00_IndexIsGeneratedPerDeclaringClass() throws IOException {
+        String index = readIndex(T00.class);
+        assertTrue(index.contains("method setNumbers"));
+        assertFalse(index.contains("lastname"));
+
+        assertTrue(readIndex(T00Parent.class).contains("field lastname"));
+    }
+
+    @Test
+    public void test_01_IndexedInjection() {
+        T00 test = Jx.of(KodeinsKt.test0()).newInstance(T00.class);
+
+        assertEquals("Salomon", test.firstname);
+        assertEquals("BRYS", test.getLastname());
+        assertArrayEquals(new int[] { 42 }, test.numbers);
+    }
+
+    @Test
+    public void test_02_TruncatedIndexFallsBackToIntrospection() {
+        T01 test = Jx.of(KodeinsKt.test0()).newInstance(T01.class);
+
+        assertEquals("Salomon", test.firstname);
+    }
+}
@@ -0,0 +1,75 @@
+package org.kodein.di.jxinject.internal
+
+import java.lang.reflect.AccessibleObject
+import java.lang.reflect.Constructor
+import java.util.logging.Level
+import java.util.logging.Logger
+
+/**
+ * Injection points declared by a class, listed at build time by the `kodein-di-jxinject-processor-jvm` annotation processor,
+ * so that the class does not need to be introspected to find them.
+ * The injection points of its super classes are read from their own indexes (or introspected).
+ *
+ * The index of a class is the resource `META-INF/kodein-di/jxinject/<binary class name>`, a text file whose first line is [HEADER], followed by one line per injection point:
+ * - `constructor <parameter types...>`: the injected constructor, if the class has one.
+ * - `field <name>`: an injected field of the class.
+ * - `method <name> <parameter types...>`: an injected method of the class.
+ *
+ * Types are written as returned by [Class.getName], and members are listed in injection order.
+ *
+ * @property constructor The injected constructor, if the index lists one.
+ * @property members The injected fields & methods declared by the class, in injection order.
+ */
+internal class JxIndex(val constructor: Constructor<*>?, val members: List<AccessibleObject>) {
+
+    companion object {
+        const val HEADER: String = "jxinject-index 2"
+        const val DIRECTORY: String = "META-INF/kodein-di/jxinject/"
+
+        private val logger: Logger = Logger.getLogger(JxInjectorContainer.LOGGER_NAME)
+
+        private val primitives = listOf(
+            Boolean::class.javaPrimitiveType!!, Byte::class.javaPrimitiveType!!, Char::class.javaPrimitiveType!!, Short::class.javaPrimitiveType!!,
+            Int::class.javaPrimitiveType!!, Long::class.javaPrimitiveType!!, Float::class.javaPrimitiveType!!, Double::class.javaPrimitiveType!!,
+        ).associateBy { it.name }
+
+        private fun ClassLoader.classOf(name: String): Class<*> = primitives[name] ?: Class.forName(name, false, this)
+
+        /**
+         * @return The index of [cls], or null if it has none (or if it cannot be used, in which case it is logged), in which case [cls] must be introspected.
+         */
+        fun load(cls: Class<*>): JxIndex? {
+            val loader = cls.classLoader ?: return null
+            val lines = loader.getResourceAsStream(DIRECTORY + cls.name)?.bufferedReader()?.use { it.readLines() } ?: return null
+            if (lines.firstOrNull() != HEADER) return null
+
+            return try {
+                var constructor: Constructor<*>? = null
+                val members = ArrayList<AccessibleObject>()
+                lines.asSequence().drop(1).filter { it.isNotBlank() }.forEach { line ->
+                    val tokens = line.trim().split(' ')
+                    when (tokens[0]) {
+                        "constructor" -> constructor = cls.getDeclaredConstructor(*tokens.drop(1).map { loader.classOf(it) }.toTypedArray())
+                        "field" -> members += cls.getDeclaredField(tokens[1])
+                        "method" -> members += cls.getDeclaredMethod(tokens[1], *tokens.drop(2).map { loader.classOf(it) }.toTypedArray())
+                        else -> throw IllegalStateException("Unknown injection point: $line")
+                    }
+                }
+                JxIndex(constructor, members)
+            } catch (error: ReflectiveOperationException) {
+                logger.log(Level.WARNING, "The jxinject index of ${cls.name} does not match the class and is ignored: it was probably generated for another version of the class.", error)
+                null
+            } catch (error: LinkageError) {
+                // A class level that cannot be introspected: let the hierarchy walk skip it.
+                logger.log(Level.FINE, "The jxinject index of ${cls.name} references a member that cannot be introspected and is ignored.", error)
+                null
+            } catch (error: IndexOutOfBoundsException) {
+                logger.log(Level.WARNING, "The jxinject index of ${cls.name} is truncated and is ignored.", error)
+                null
+            } catch (error: IllegalStateException) {
+                logger.log(Level.WARNING, "The jxinject index of ${cls.name} cannot be read and is ignored.", error)
+                null
+            }
+        }
+    }
+}
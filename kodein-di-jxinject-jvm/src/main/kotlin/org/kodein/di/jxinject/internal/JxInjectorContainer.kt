@@ -19,7 +19,7 @@ internal class JxInjectorContainer(qualifiers: Set<Qualifier>) {
          * implementation detail, whereas this name is documented for users to configure. It is also 22 characters, so
          * Android's `AndroidHandler` uses it verbatim as the logcat tag (it truncates anything longer than 23).
          */
-        private const val LOGGER_NAME: String = "org.kodein.di.jxinject"
+        internal const val LOGGER_NAME: String = "org.kodein.di.jxinject"
 
         private val logger: Logger = Logger.getLogger(LOGGER_NAME)
     }
@@ -32,6 +32,13 @@ internal class JxInjectorContainer(qualifiers: Set<Qualifier>) {
 
     private val _constructors = ConcurrentHashMap<Class<*>, DirectDI.() -> Any>()
 
+    /** Build time indexes, or [NoIndex] for classes that have none. */
+    private val _indexes = ConcurrentHashMap<Class<*>, Any>()
+
+    private object NoIndex
+
+    private fun findIndex(cls: Class<*>): JxIndex? = _indexes.getOrPut(cls) { JxIndex.load(cls) ?: NoIndex } as? JxIndex
+
     private fun getTagFromQualifier(el: AnnotatedElement): Any? {
         _qualifiers.forEach {
             val qualifier = el.getAnnotation(it.key)
@@ -123,7 +130,7 @@ internal class JxInjectorContainer(qualifiers: Set<Qualifier>) {
     private fun <M: AccessibleObject> fillSetters(
             members: Array<M>,
             elements: M.() -> Array<Element>,
-            call: M.(Any, Array<Any?>) -> Unit,
+            invoker: (M) -> MemberInvoker,
             setters: MutableList<DirectDI.(Any) -> Any>
     ) {
         members
@@ -133,20 +140,13 @@ internal class JxInjectorContainer(qualifiers: Set<Qualifier>) {
                     .map { getter(it) }
                     .toTypedArray()
 
-                @Suppress("DEPRECATION")
-                val isAccessible = member.isAccessible
+                val memberInvoker = invoker(member)
 
                 setters += { receiver ->
                     val arguments = Array<Any?>(getters.size) { null }
                     getters.forEachIndexed { i, getter -> arguments[i] = getter() }
 
-                    if (!isAccessible) member.isAccessible = true
-                    try {
-                        member.call(receiver, arguments)
-                    }
-                    finally {
-                        if (!isAccessible) member.isAccessible = false
-                    }
+                    memberInvoker.call(receiver, arguments) ?: Unit
                 }
             }
     }
@@ -174,43 +174,59 @@ internal class JxInjectorContainer(qualifiers: Set<Qualifier>) {
             emptyArray()
         }
 
-    private tailrec fun fillMembersSetters(cls: Class<*>, setters: MutableList<DirectDI.(Any) -> Any>) {
-        if (cls == Any::class.java)
-            return
-
-        _setters[cls]?.let {
-            setters += it
-            return
-        }
+    @Suppress("DELEGATED_MEMBER_HIDES_SUPERTYPE_OVERRIDE")
+    private class FieldElement(private val _field: Field) : Element, AnnotatedElement by _field {
+        override val classType: Class<*> get() = _field.type
+        override val genericType: Type get() = _field.genericType
+        override fun toString() = _field.toString()
+    }
 
-        @Suppress("DELEGATED_MEMBER_HIDES_SUPERTYPE_OVERRIDE")
-        class FieldElement(private val _field: Field) : Element, AnnotatedElement by _field {
-            override val classType: Class<*> get() = _field.type
-            override val genericType: Type get() = _field.genericType
-            override fun toString() = _field.toString()
-        }
+    private class ParameterElement(private val _method: Method, private val _index: Int) : Element {
+        override val classType: Class<*> get() = _method.parameterTypes[_index]
+        override val genericType: Type get() = _method.genericParameterTypes[_index]
+        override fun getAnnotations() = _method.parameterAnnotations[_index]
+        override fun toString() = "Parameter ${_index + 1} of $_method"
+    }
 
+    private fun fillFieldsSetters(fields: Array<Field>, setters: MutableList<DirectDI.(Any) -> Any>) =
         fillSetters(
-            members = declaredMembersOrEmpty(cls, "fields") { cls.declaredFields },
+            members = fields,
             elements = { arrayOf(FieldElement(this)) },
-            call = { receiver, values -> set(receiver, values[0]) },
+            invoker = MemberInvoker::of,
             setters = setters
         )
 
-        class ParameterElement(private val _method: Method, private val _index: Int) : Element {
-            override val classType: Class<*> get() = _method.parameterTypes[_index]
-            override val genericType: Type get() = _method.genericParameterTypes[_index]
-            override fun getAnnotations() = _method.parameterAnnotations[_index]
-            override fun toString() = "Parameter ${_index + 1} of $_method"
-        }
-
+    private fun fillMethodsSetters(methods: Array<Method>, setters: MutableList<DirectDI.(Any) -> Any>) =
         fillSetters(
-            members = declaredMembersOrEmpty(cls, "methods") { cls.declaredMethods },
+            members = methods,
             elements = { (0 until parameterTypes.size).map { ParameterElement(this, it) }.toTypedArray() },
-            call = { receiver, values -> invoke(receiver, *values) },
+            invoker = MemberInvoker::of,
             setters = setters
         )
 
+    private tailrec fun fillMembersSetters(cls: Class<*>, setters: MutableList<DirectDI.(Any) -> Any>) {
+        if (cls == Any::class.java)
+            return
+
+        _setters[cls]?.let {
+            setters += it
+            return
+        }
+
+        // Each level is read from its own index, so that a super class compiled separately is read as it is at runtime.
+        val index = findIndex(cls)
+        if (index != null) {
+            index.members.forEach {
+                when (it) {
+                    is Field -> fillFieldsSetters(arrayOf(it), setters)
+                    is Method -> fillMethodsSetters(arrayOf(it), setters)
+                }
+            }
+        } else {
+            fillFieldsSetters(declaredMembersOrEmpty(cls, "fields") { cls.declaredFields }, setters)
+            fillMethodsSetters(declaredMembersOrEmpty(cls, "methods") { cls.declaredMethods }, setters)
+        }
+
         return fillMembersSetters(cls.superclass, setters)
     }
 
@@ -227,7 +243,8 @@ internal class JxInjectorContainer(qualifiers: Set<Qualifier>) {
     }
 
     private fun createConstructor(cls: Class<*>): DirectDI.() -> Any {
-        val constructor = cls.declaredConstructors.firstOrNull { it.isAnnotationPresent(Inject::class.java) }
+        val constructor = findIndex(cls)?.constructor
+                          ?: cls.declaredConstructors.firstOrNull { it.isAnnotationPresent(Inject::class.java) }
                           ?:  if (cls.declaredConstructors.size == 1) cls.declaredConstructors[0]
                           else throw IllegalArgumentException("Class ${cls.name} must either have only one constructor or an @Inject annotated constructor")
 
@@ -240,20 +257,13 @@ internal class JxInjectorContainer(qualifiers: Set<Qualifier>) {
 
         val getters = (0 until constructor.parameterTypes.size).map { getter(ConstructorElement(it)) }
 
-        @Suppress("DEPRECATION")
-        val isAccessible = constructor.isAccessible
+        val invoker = MemberInvoker.of(constructor)
 
         return {
             val arguments = Array<Any?>(getters.size) { null }
             getters.forEachIndexed { i, getter -> arguments[i] = getter() }
 
-            if (!isAccessible) constructor.isAccessible = true
-            try {
-                constructor.newInstance(*arguments)
-            }
-            finally {
-                if (!isAccessible) constructor.isAccessible = false
-            }
+            invoker.call(null, arguments)!!
         }
     }
 
@@ -0,0 +1,99 @@
+package org.kodein.di.jxinject.internal
+
+import java.lang.invoke.MethodHandle
+import java.lang.invoke.MethodHandles
+import java.lang.invoke.MethodType
+import java.lang.reflect.Constructor
+import java.lang.reflect.Field
+import java.lang.reflect.InvocationTargetException
+import java.lang.reflect.Method
+import java.lang.reflect.Modifier
+
+/**
+ * Calls an injected constructor, method or field setter, with its arguments in an array.
+ *
+ * Invokers are created once per member and cached by the [JxInjectorContainer]:
+ * the member is made accessible when its invoker is created (on the member instance owned by the invoker, so no one else sees it), never when it is called.
+ *
+ * Whether the member is called through a method handle or through reflection, an exception thrown by the member itself is rethrown as is,
+ * and not wrapped in an [InvocationTargetException].
+ */
+internal fun interface MemberInvoker {
+    /**
+     * @param receiver The instance to inject, ignored by constructors and static members.
+     * @return The created instance for a constructor, anything otherwise.
+     */
+    fun call(receiver: Any?, arguments: Array<Any?>): Any?
+
+    companion object {
+        private val lookup: MethodHandles.Lookup? = try {
+            MethodHandles.lookup()
+        } catch (e: LinkageError) {
+            // Method handles are not available on Android before API 26.
+            null
+        }
+
+        /** Every handle is adapted to `(Object receiver, Object[] arguments) -> Object`, so that it can be called with [MethodHandle.invokeExact]. */
+        private val genericType = MethodType.methodType(Any::class.java, Any::class.java, Array<Any?>::class.java)
+
+        private class Handle(private val handle: MethodHandle) : MemberInvoker {
+            override fun call(receiver: Any?, arguments: Array<Any?>): Any? = handle.invokeExact(receiver, arguments)
+        }
+
+        /**
+         * @param hasReceiver Whether the first parameter of [handle] is the receiver.
+         */
+        private fun adapt(handle: MethodHandle, hasReceiver: Boolean): MemberInvoker {
+            val arguments = handle.type().parameterCount() - if (hasReceiver) 1 else 0
+            val spread = handle.asSpreader(Array<Any?>::class.java, arguments)
+            val withReceiver = if (hasReceiver) spread else MethodHandles.dropArguments(spread, 0, Any::class.java)
+            return Handle(withReceiver.asType(genericType))
+        }
+
+        /** Rethrows the exception of the called member, as a method handle does. */
+        private inline fun <T> unwrapped(call: () -> T): T =
+            try {
+                call()
+            } catch (e: InvocationTargetException) {
+                throw e.targetException
+            }
+
+        /**
+         * Creates a method handle based invoker, or falls back to reflection if method handles are not available or if the member cannot be unreflected.
+         */
+        private inline fun create(unreflect: (MethodHandles.Lookup) -> MemberInvoker, reflect: () -> MemberInvoker): MemberInvoker {
+            val lookup = lookup ?: return reflect()
+            return try {
+                unreflect(lookup)
+            } catch (e: IllegalAccessException) {
+                reflect()
+            } catch (e: UnsupportedOperationException) {
+                reflect()
+            }
+        }
+
+        fun of(constructor: Constructor<*>): MemberInvoker {
+            constructor.setAccessible(true)
+            return create(
+                unreflect = { adapt(it.unreflectConstructor(constructor), hasReceiver = false) },
+                reflect = { MemberInvoker { _, arguments -> unwrapped { constructor.newInstance(*arguments) } } }
+            )
+        }
+
+        fun of(method: Method): MemberInvoker {
+            method.setAccessible(true)
+            return create(
+                unreflect = { adapt(it.unreflect(method), hasReceiver = !Modifier.isStatic(method.modifiers)) },
+                reflect = { MemberInvoker { receiver, arguments -> unwrapped { method.invoke(receiver, *arguments) } } }
+            )
+        }
+
+        fun of(field: Field): MemberInvoker {
+            field.setAccessible(true)
+            return create(
+                unreflect = { adapt(it.unreflectSetter(field), hasReceiver = !Modifier.isStatic(field.modifiers)) },
+                reflect = { MemberInvoker { receiver, arguments -> field.set(receiver, arguments[0]) } }
+            )
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package org.kodein.di.jxinject;
+
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class InjectJvmTests_06_Invokers {
+
+    public static class T00 {
+        private final String firstname;
+        private String lastname;
+        private int setterCalls = 0;
+        private String fullname;
+
+        @Inject
+        private T00(String firstname) {
+            this.firstname = firstname;
+        }
+
+        @Inject
+        private void setFullname(String firstname, @Named("lastname") String lastname) {
+            ++setterCalls;
+            this.fullname = firstname + " " + lastname;
+        }
+
+        @Inject
+        private void setLastname(@Named("lastname") String lastname) {
+            this.lastname = lastname;
+        }
+    }
+
+    @Test
+    public void test_00_PrivateMembers() {
+        T00 test = Jx.of(KodeinsKt.test0()).newInstance(T00.class);
+
+        assertEquals("Salomon", test.firstname);
+        assertEquals("BRYS", test.lastname);
+        assertEquals("Salomon BRYS", test.fullname);
+        assertEquals(1, test.setterCalls);
+    }
+
+    public static class T01 {
+        @Inject private String firstname;
+        @Inject @Named("lastname") private String lastname;
+    }
+
+    @Test
+    public void test_01_ConcurrentInjections() throws Exception {
+        JxInjector jx = Jx.of(KodeinsKt.test0());
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<T01>> tasks = new ArrayList<>();
+            for (int i = 0; i < 1000; ++i) {
+                tasks.add(() -> {
+                    T01 test = new T01();
+                    jx.inject(test);
+                    return test;
+                });
+            }
+            for (Future<T01> future : executor.invokeAll(tasks)) {
+                T01 test = future.get();
+                assertEquals("Salomon", test.firstname);
+                assertEquals("BRYS", test.lastname);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    public static class T02 {
+        @Inject
+        public T02(String firstname) {
+            throw new IllegalStateException("Cannot create " + firstname);
+        }
+    }
+
+    @Test
+    public void test_02_MemberExceptionIsNotWrapped() {
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () -> Jx.of(KodeinsKt.test0()).newInstance(T02.class));
+        assertEquals("Cannot create Salomon", ex.getMessage());
+    }
+}
@@ -0,0 +1,8 @@
+plugins {
+    kodein.library.jvm
+}
+
+kodeinUpload {
+    name = "Kodein-JxInject-Processor"
+    description = "Annotation processor that indexes the JSR 330 injection points of Java classes for Kodein-JxInject"
+}
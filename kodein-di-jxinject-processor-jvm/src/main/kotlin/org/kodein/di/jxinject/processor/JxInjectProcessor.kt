@@ -0,0 +1,111 @@
+package org.kodein.di.jxinject.processor
+
+import javax.annotation.processing.AbstractProcessor
+import javax.annotation.processing.RoundEnvironment
+import javax.lang.model.SourceVersion
+import javax.lang.model.element.Element
+import javax.lang.model.element.ElementKind
+import javax.lang.model.element.ExecutableElement
+import javax.lang.model.element.TypeElement
+import javax.lang.model.type.ArrayType
+import javax.lang.model.type.DeclaredType
+import javax.lang.model.type.TypeKind
+import javax.lang.model.type.TypeMirror
+import javax.tools.Diagnostic
+import javax.tools.StandardLocation
+
+/**
+ * Annotation processor that writes, for each class declaring `@Inject` members, the index of the injection points it declares,
+ * which the JxInjector reads instead of introspecting the class.
+ *
+ * An index only lists the members of its own class: the JxInjector reads the index (or introspects) each of the super classes,
+ * so that a super class compiled separately, which may gain or lose injection points, is always read as it is at runtime.
+ *
+ * The index format is documented by `org.kodein.di.jxinject.internal.JxIndex`, and must be kept in sync with it.
+ */
+public class JxInjectProcessor : AbstractProcessor() {
+
+    private companion object {
+        const val INJECT = "javax.inject.Inject"
+        const val HEADER = "jxinject-index 2"
+        const val DIRECTORY = "META-INF/kodein-di/jxinject/"
+    }
+
+    override fun getSupportedAnnotationTypes(): Set<String> = setOf(INJECT)
+
+    override fun getSupportedSourceVersion(): SourceVersion = SourceVersion.latestSupported()
+
+    override fun process(annotations: Set<TypeElement>, roundEnv: RoundEnvironment): Boolean {
+        val inject = annotations.firstOrNull { it.qualifiedName.contentEquals(INJECT) } ?: return false
+
+        roundEnv.getElementsAnnotatedWith(inject)
+            .mapNotNull { it.enclosingElement as? TypeElement }
+            .filter { it.kind == ElementKind.CLASS }
+            .distinct()
+            .forEach { writeIndex(it) }
+
+        return false
+    }
+
+    private fun Element.isInjected() = annotationMirrors.any { (it.annotationType.asElement() as TypeElement).qualifiedName.contentEquals(INJECT) }
+
+    private val TypeElement.binaryName: String get() = processingEnv.elementUtils.getBinaryName(this).toString()
+
+    /**
+     * @return The erased [type], written as returned by `Class.getName`.
+     */
+    private fun className(type: TypeMirror): String {
+        val erased = processingEnv.typeUtils.erasure(type)
+        return when (erased.kind) {
+            TypeKind.ARRAY -> "[" + descriptor((erased as ArrayType).componentType)
+            TypeKind.DECLARED -> ((erased as DeclaredType).asElement() as TypeElement).binaryName
+            else -> erased.kind.name.lowercase()
+        }
+    }
+
+    private fun descriptor(type: TypeMirror): String {
+        val erased = processingEnv.typeUtils.erasure(type)
+        return when (erased.kind) {
+            TypeKind.BOOLEAN -> "Z"
+            TypeKind.BYTE -> "B"
+            TypeKind.CHAR -> "C"
+            TypeKind.SHORT -> "S"
+            TypeKind.INT -> "I"
+            TypeKind.LONG -> "J"
+            TypeKind.FLOAT -> "F"
+            TypeKind.DOUBLE -> "D"
+            TypeKind.ARRAY -> "[" + descriptor((erased as ArrayType).componentType)
+            else -> "L" + className(erased) + ";"
+        }
+    }
+
+    private fun ExecutableElement.parameterClassNames() = parameters.joinToString("") { " " + className(it.asType()) }
+
+    private fun writeIndex(cls: TypeElement) {
+        val lines = ArrayList<String>()
+        lines += HEADER
+
+        val constructors = cls.enclosedElements.filter { it.kind == ElementKind.CONSTRUCTOR }.map { it as ExecutableElement }
+        val constructor = constructors.firstOrNull { it.isInjected() } ?: constructors.singleOrNull()
+        if (constructor != null) lines += "constructor" + constructor.parameterClassNames()
+
+        // Same order as the JxInjector introspection: fields then methods.
+        cls.enclosedElements.filter { it.kind == ElementKind.FIELD && it.isInjected() }.forEach {
+            lines += "field ${it.simpleName}"
+        }
+        cls.enclosedElements.filter { it.kind == ElementKind.METHOD && it.isInjected() }.forEach {
+            lines += "method ${it.simpleName}" + (it as ExecutableElement).parameterClassNames()
+        }
+
+        var origin: Element = cls
+        while (origin.enclosingElement is TypeElement) origin = origin.enclosingElement
+
+        try {
+            processingEnv.filer.createResource(StandardLocation.CLASS_OUTPUT, "", DIRECTORY + cls.binaryName, origin).openWriter().use { writer ->
+                lines.forEach { writer.write(it) ; writer.write("\n") }
+            }
+        } catch (error: Exception) {
+            processingEnv.messager.printMessage(Diagnostic.Kind.ERROR, "Could not write the jxinject index of ${cls.binaryName}: $error", cls)
+        }
+    }
+}
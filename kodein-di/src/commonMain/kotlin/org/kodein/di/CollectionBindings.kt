@@ -0,0 +1,65 @@
+package org.kodein.di
+
+import org.kodein.type.generic
+
+/**
+ * Creates a map and add multiple bindings to it, indexed by their keys.
+ *
+ * The retrieved map is lazy: only the accessed values are instantiated.
+ *
+ * K & V generics will be erased!
+ *
+ * @param K The type of the keys of the map.
+ * @param V The created type.
+ * @param creator The builder that should add binding in the map.
+ */
+public inline fun <reified K : Any, reified V : Any> DI.Builder.bindMap(
+    tag: Any? = null,
+    overrides: Boolean? = null,
+    noinline creator: DI.Builder.MapBinder<K, V>.() -> Unit
+): Unit = BindInMap(tag = tag, overrides = overrides, keyType = generic(), type = generic(), creator = creator)
+
+/**
+ * Add multiple bindings in an existing map.
+ *
+ * K & V generics will be erased!
+ *
+ * @param K The type of the keys of the targeted map.
+ * @param V The binding type of the targeted map.
+ * @param creator The builder that should add binding in the map.
+ */
+public inline fun <reified K : Any, reified V : Any> DI.Builder.inBindMap(
+    tag: Any? = null,
+    overrides: Boolean? = null,
+    noinline creator: DI.Builder.MapBinder<K, V>.() -> Unit
+): Unit = InBindMap(tag = tag, overrides = overrides, keyType = generic(), type = generic(), creator = creator)
+
+/**
+ * Creates a list and add multiple bindings to it, sorted by their order.
+ *
+ * The retrieved list is lazy: only the accessed elements are instantiated.
+ *
+ * T generics will be erased!
+ *
+ * @param T The created type.
+ * @param creator The builder that should add binding in the list.
+ */
+public inline fun <reified T : Any> DI.Builder.bindList(
+    tag: Any? = null,
+    overrides: Boolean? = null,
+    noinline creator: DI.Builder.ListBinder<T>.() -> Unit
+): Unit = BindInList(tag = tag, overrides = overrides, type = generic(), creator = creator)
+
+/**
+ * Add multiple bindings in an existing list.
+ *
+ * T generics will be erased!
+ *
+ * @param T The binding type of the targeted list.
+ * @param creator The builder that should add binding in the list.
+ */
+public inline fun <reified T : Any> DI.Builder.inBindList(
+    tag: Any? = null,
+    overrides: Boolean? = null,
+    noinline creator: DI.Builder.ListBinder<T>.() -> Unit
+): Unit = InBindList(tag = tag, overrides = overrides, type = generic(), creator = creator)
@@ -36,7 +36,7 @@ public interface DI : DIAware {
      *
      * @param message The message of the exception.
      */
-    public class DependencyLoopException internal constructor(message: String) : RuntimeException(message)
+    public class DependencyLoopException(message: String) : RuntimeException(message)
 
     /**
      * Exception thrown when asked for a dependency that cannot be found.
@@ -437,6 +437,87 @@ public interface DI : DIAware {
             public fun bindMultiton(tag: Any? = null, overrides: Boolean? = null, ref: RefMaker? = null, sync: Boolean = true, creator: BindingDI<Any>.(A) -> T)
         }
 
+        /**
+         * Manage multiple bindings in a [Map], indexed by keys of type [K]
+         */
+        public interface MapBinder<K : Any, V : Any> {
+
+            /**
+             * Add a binding in the [Map] of type [V], for the given key.
+             *
+             * @param key The key of the binding in the map.
+             * @param createBinding The builder that should add binding in the map.
+             * @throws OverridingException If a binding is already associated to the key in the map.
+             */
+            public fun add(key: K, createBinding: () -> DIBinding<*, Unit, out V>)
+
+            /**
+             * Adds a singleton binding to the map.
+             *
+             * @param key The key of the binding in the map.
+             * @param ref The reference maker to use (defaults to strong reference if null).
+             * @param sync Whether the singleton should be thread-safe.
+             * @param creator The function that creates the singleton instance.
+             */
+            public fun addSingleton(key: K, ref: RefMaker? = null, sync: Boolean = true, creator: NoArgBindingDI<Any>.() -> V)
+
+            /**
+             * Adds a provider binding to the map.
+             *
+             * @param key The key of the binding in the map.
+             * @param creator The function that creates a new instance each time.
+             */
+            public fun addProvider(key: K, creator: NoArgBindingDI<Any>.() -> V)
+
+            /**
+             * Adds an instance binding to the map.
+             *
+             * @param key The key of the binding in the map.
+             * @param instance The instance to add.
+             */
+            public fun addInstance(key: K, instance: V)
+        }
+
+        /**
+         * Manage multiple bindings in a [List], sorted by their order.
+         */
+        public interface ListBinder<T : Any> {
+
+            /**
+             * Add a binding in the [List] of type [T].
+             *
+             * @param order The position of the binding in the list: lower orders come first, equal orders keep the order in which they were added.
+             * @param createBinding The builder that should add binding in the list.
+             */
+            public fun add(order: Int = 0, createBinding: () -> DIBinding<*, Unit, out T>)
+
+            /**
+             * Adds a singleton binding to the list.
+             *
+             * @param order The position of the binding in the list.
+             * @param ref The reference maker to use (defaults to strong reference if null).
+             * @param sync Whether the singleton should be thread-safe.
+             * @param creator The function that creates the singleton instance.
+             */
+            public fun addSingleton(order: Int = 0, ref: RefMaker? = null, sync: Boolean = true, creator: NoArgBindingDI<Any>.() -> T)
+
+            /**
+             * Adds a provider binding to the list.
+             *
+             * @param order The position of the binding in the list.
+             * @param creator The function that creates a new instance each time.
+             */
+            public fun addProvider(order: Int = 0, creator: NoArgBindingDI<Any>.() -> T)
+
+            /**
+             * Adds an instance binding to the list.
+             *
+             * @param order The position of the binding in the list.
+             * @param instance The instance to add.
+             */
+            public fun addInstance(order: Int = 0, instance: T)
+        }
+
         /**
          * Attaches the binding of a given type with a given tag.
          *
@@ -504,6 +585,66 @@ public interface DI : DIAware {
             creator: ArgSetBinder<A, T>.() -> Unit,
         )
 
+        /**
+         * Creates a Map binding of a given key & value type with a given tag and attaches multiple bindings to it.
+         *
+         * @param K The type of the keys of the map.
+         * @param V The type of value to bind.
+         * @param tag The tag to bind.
+         * @param overrides Whether this bind **must** or **must not** override an existing binding.
+         */
+        public fun <K : Any, V : Any> BindInMap(
+            tag: Any? = null,
+            overrides: Boolean? = null,
+            keyType: TypeToken<out K>,
+            type: TypeToken<out V>,
+            creator: MapBinder<K, V>.() -> Unit,
+        )
+
+        /**
+         * Attaches multiple bindings in a Map binding of a given key & value type with a given tag.
+         *
+         * @param K The type of the keys of the map.
+         * @param V The type of value to bind.
+         * @param tag The tag to bind.
+         * @param overrides Whether this bind **must** or **must not** override an existing binding.
+         */
+        public fun <K : Any, V : Any> InBindMap(
+            tag: Any? = null,
+            overrides: Boolean? = null,
+            keyType: TypeToken<out K>,
+            type: TypeToken<out V>,
+            creator: MapBinder<K, V>.() -> Unit,
+        )
+
+        /**
+         * Creates a List binding of a given type with a given tag and attaches multiple bindings to it.
+         *
+         * @param T The type of value to bind.
+         * @param tag The tag to bind.
+         * @param overrides Whether this bind **must** or **must not** override an existing binding.
+         */
+        public fun <T : Any> BindInList(
+            tag: Any? = null,
+            overrides: Boolean? = null,
+            type: TypeToken<out T>,
+            creator: ListBinder<T>.() -> Unit,
+        )
+
+        /**
+         * Attaches multiple bindings in a List binding of a given type with a given tag.
+         *
+         * @param T The type of value to bind.
+         * @param tag The tag to bind.
+         * @param overrides Whether this bind **must** or **must not** override an existing binding.
+         */
+        public fun <T : Any> InBindList(
+            tag: Any? = null,
+            overrides: Boolean? = null,
+            type: TypeToken<out T>,
+            creator: ListBinder<T>.() -> Unit,
+        )
+
         /**
          * Attaches the binding of a given type with a given tag.
          *
@@ -634,6 +775,15 @@ public interface DI : DIAware {
          */
         public fun onReady(cb: DirectDI.() -> Unit)
 
+        /**
+         * Adds a callback that will be called once the DI object is configured and instantiated.
+         *
+         * @param independent Whether this callback does not need other callbacks to have run before it.
+         *   Independent callbacks can run concurrently when the DI object is configured with an [OnReadyRunner].
+         * @param cb The callback.
+         */
+        public fun onReady(independent: Boolean, cb: DirectDI.() -> Unit): Unit = onReady(cb)
+
         public fun RegisterContextTranslator(translator: ContextTranslator<*, *>)
     }
 
@@ -658,6 +808,29 @@ public interface DI : DIAware {
          */
         public var verifyModuleNames: Boolean
 
+        /**
+         * If true, once the container is built, its bindings tree is compiled into a flat immutable index,
+         * and the result of every lookup (including sub-type and context translated ones) is memoized.
+         * This speeds up retrievals that are not exact key matches, at the cost of some memory.
+         * If false (default), the bindings tree is searched whenever a key is not found in the cache.
+         */
+        public var freezeTree: Boolean
+
+        /**
+         * If true (default), retrieving a binding that is already being retrieved by the current thread throws a [DependencyLoopException].
+         * If false, dependency loops are not checked, which saves a little time on each retrieval,
+         * but a dependency loop will end up in a stack overflow.
+         * Only disable it once your dependency graph has been validated.
+         */
+        public var checkDependencyLoops: Boolean
+
+        /**
+         * The runner of the independent `onReady` callbacks (including the creation of eager singletons).
+         * If null (default), all `onReady` callbacks are run sequentially, in the order they were registered.
+         * If not null, independent callbacks are given to this runner, and other callbacks are run sequentially once they have all completed.
+         */
+        public var onReadyRunner: OnReadyRunner?
+
         /**
          * The external source is repsonsible for fetching / creating a value when DI cannot find a matching binding.
          */
@@ -682,6 +855,24 @@ public interface DI : DIAware {
          */
         public fun extend(di: DI, allowOverride: Boolean = false, copy: Copy = Copy.NonCached)
 
+        /**
+         * Layers this builder over the given [DI] instead of copying its bindings map.
+         *
+         * A layered container only indexes its own bindings (and the copied ones), and looks up the other bindings in the tree of the extended container, sharing its caches,
+         * so that creating it costs as much as its own bindings only.
+         * Apart from that, it behaves as if it was extended with [extend].
+         *
+         * @param di The di object to layer over.
+         * @param allowOverride Whether this module is allowed to override existing bindings.
+         *   If it is not, overrides (even explicit) will throw an [OverridingException].
+         * @param copy The copy specifications, that defines which bindings will be copied to the new container.
+         *   By default, no binding is copied.
+         * @throws IllegalStateException If this builder already defines bindings (or has already extended a container): layering must be the first thing a builder does.
+         * @throws OverridingException If this di overrides an existing binding and is not allowed to
+         *   OR [allowOverride] is true while YOU don't have the permission to override.
+         */
+        public fun extendLayered(di: DI, allowOverride: Boolean = false, copy: Copy = Copy.None)
+
         /**
          * Imports all bindings defined in the given [DI] into this builder.
          *
@@ -700,6 +891,24 @@ public interface DI : DIAware {
          *   OR [allowOverride] is true while YOU don't have the permission to override.
          */
         public fun extend(directDI: DirectDI, allowOverride: Boolean = false, copy: Copy = Copy.NonCached)
+
+        /**
+         * Layers this builder over the given [DirectDI] instead of copying its bindings map.
+         *
+         * A layered container only indexes its own bindings (and the copied ones), and looks up the other bindings in the tree of the extended container, sharing its caches,
+         * so that creating it costs as much as its own bindings only.
+         * Apart from that, it behaves as if it was extended with [extend].
+         *
+         * @param directDI The direct di object to layer over.
+         * @param allowOverride Whether this module is allowed to override existing bindings.
+         *   If it is not, overrides (even explicit) will throw an [OverridingException].
+         * @param copy The copy specifications, that defines which bindings will be copied to the new container.
+         *   By default, no binding is copied.
+         * @throws IllegalStateException If this builder already defines bindings (or has already extended a container): layering must be the first thing a builder does.
+         * @throws OverridingException If this di overrides an existing binding and is not allowed to
+         *   OR [allowOverride] is true while YOU don't have the permission to override.
+         */
+        public fun extendLayered(directDI: DirectDI, allowOverride: Boolean = false, copy: Copy = Copy.None)
     }
 
     /**
@@ -804,6 +1013,9 @@ public interface DI : DIAware {
         public var defaultFullDescriptionOnError: Boolean = false
         public var defaultFullContainerTreeOnError: Boolean = false
         public var defaultVerifyModuleNames: Boolean = false
+        public var defaultFreezeTree: Boolean = false
+        public var defaultCheckDependencyLoops: Boolean = true
+        public var defaultOnReadyRunner: OnReadyRunner? = null
     }
 
 }
@@ -137,6 +137,22 @@ public interface DIContainer {
          */
         public fun extend(container: DIContainer, allowOverride: Boolean = false, copy: Set<DI.Key<*, *, *>> = emptySet())
 
+        /**
+         * Layers this builder over the given [DIContainer]: its bindings are not imported in this builder,
+         * the created container will look them up in the tree of the given container instead.
+         *
+         * Only the copied bindings are imported in this builder.
+         *
+         * @param container The container object to layer over.
+         * @param allowOverride Whether this module is allowed to override existing bindings.
+         *                      If it is not, overrides (even explicit) will throw an [DI.OverridingException].
+         * @throws IllegalStateException If this builder already defines bindings, or is already layered over a container.
+         * @throws DI.OverridingException If this DI overrides an existing binding and is not allowed to
+         *                                    OR [allowOverride] is true while YOU don't have the permission to override.
+         */
+        public fun extendLayered(container: DIContainer, allowOverride: Boolean = false, copy: Set<DI.Key<*, *, *>> = emptySet()): Unit =
+            extend(container, allowOverride, copy)
+
         /**
          * Creates a sub builder that will register its bindings to the same map.
          *
@@ -152,6 +168,15 @@ public interface DIContainer {
          */
         public fun onReady(cb: DirectDI.() -> Unit)
 
+        /**
+         * Adds a callback that will be called once the DI object has been initialized.
+         *
+         * @param independent Whether this callback does not need other callbacks to have run before it.
+         *   Independent callbacks can run concurrently when the DI object is configured with an [OnReadyRunner].
+         * @param cb A callback.
+         */
+        public fun onReady(independent: Boolean, cb: DirectDI.() -> Unit): Unit = onReady(cb)
+
         public fun registerContextTranslator(translator: ContextTranslator<*, *>)
     }
 
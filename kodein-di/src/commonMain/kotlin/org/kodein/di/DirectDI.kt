@@ -166,6 +166,28 @@ public interface DirectDIBase : DirectDIAware {
      * @throws DI.DependencyLoopException When calling the provider, if the value construction triggered a dependency loop.
      */
     public fun <A, T : Any> InstanceOrNull(argType: TypeToken<in A>, type: TypeToken<T>, tag: Any? = null, arg: A): T?
+
+    /**
+     * Creates a handle that retrieves instances of `T` for the given type and tag, see [DIHandle].
+     *
+     * @param T The type of object to retrieve.
+     * @param type The type of object to retrieve.
+     * @param tag The bound tag, if any.
+     * @return A handle whose `get()` retrieves an instance of `T`.
+     */
+    public fun <T : Any> ProviderHandle(type: TypeToken<T>, tag: Any? = null): ProviderHandle<T>
+
+    /**
+     * Creates a handle that retrieves instances of `T` for the given argument type, type and tag, see [DIHandle].
+     *
+     * @param A The type of argument the factory takes.
+     * @param T The type of object to retrieve.
+     * @param argType The type of argument the factory takes.
+     * @param type The type of object to retrieve.
+     * @param tag The bound tag, if any.
+     * @return A handle whose `get(arg)` retrieves an instance of `T`.
+     */
+    public fun <A, T : Any> FactoryHandle(argType: TypeToken<in A>, type: TypeToken<T>, tag: Any? = null): FactoryHandle<A, T>
 }
 
 /**
@@ -0,0 +1,129 @@
+package org.kodein.di
+
+import org.kodein.type.generic
+import kotlin.concurrent.Volatile
+
+/**
+ * A retrieval that is prepared once, to be repeated at the cost of the bound binding only.
+ *
+ * The [key] (and its type tokens) is computed when the handle is created,
+ * and the factory of the binding is resolved (finding its definition, context translator & binding factory) the first time it is used with a context,
+ * and then reused as long as the handle is used with the same context.
+ *
+ * A handle is bound to the container it was created from, and is thread-safe.
+ *
+ * @param A The type of argument the bound factory takes.
+ * @param T The type of object to retrieve.
+ * @property key The key of the retrieved binding.
+ */
+public sealed class DIHandle<in A, out T : Any>(
+    private val container: DIContainer,
+    public val key: DI.Key<*, A, T>,
+    private val context: DIContext<*>,
+) {
+    private class Resolved(val context: Any, val factory: (Any?) -> Any)
+
+    @Volatile
+    private var _resolved: Resolved? = null
+
+    @Suppress("UNCHECKED_CAST")
+    internal fun factory(context: Any = this.context.value): (A) -> T {
+        _resolved?.let { if (it.context === context) return it.factory as (A) -> T }
+        val factory = container.factory(key as DI.Key<Any, A, T>, context)
+        _resolved = Resolved(context, factory as (Any?) -> Any)
+        return factory
+    }
+
+    override fun toString(): String = "Handle(${key.bindDescription})"
+}
+
+/**
+ * A prepared retrieval of instances of `T`.
+ *
+ * @see DIHandle
+ */
+public class ProviderHandle<out T : Any> internal constructor(container: DIContainer, key: DI.Key<*, Unit, T>, context: DIContext<*>) : DIHandle<Unit, T>(container, key, context) {
+
+    /**
+     * Gets an instance of `T`, with the context of the DI the handle was created from.
+     *
+     * @throws DI.NotFoundException If no provider was found.
+     * @throws DI.DependencyLoopException If the value construction triggered a dependency loop.
+     */
+    public fun get(): T = factory().invoke(Unit)
+
+    /**
+     * Gets an instance of `T` for the given context, which must be of the context type of the DI the handle was created from.
+     *
+     * @throws DI.NotFoundException If no provider was found.
+     * @throws DI.DependencyLoopException If the value construction triggered a dependency loop.
+     */
+    public fun get(context: Any): T = factory(context).invoke(Unit)
+}
+
+/**
+ * A prepared retrieval of instances of `T` created from an argument of type `A`.
+ *
+ * @see DIHandle
+ */
+public class FactoryHandle<in A, out T : Any> internal constructor(container: DIContainer, key: DI.Key<*, A, T>, context: DIContext<*>) : DIHandle<A, T>(container, key, context) {
+
+    /**
+     * Gets an instance of `T` for the given argument, with the context of the DI the handle was created from.
+     *
+     * @throws DI.NotFoundException If no factory was found.
+     * @throws DI.DependencyLoopException If the value construction triggered a dependency loop.
+     */
+    public fun get(arg: A): T = factory().invoke(arg)
+
+    /**
+     * Gets an instance of `T` for the given context, which must be of the context type of the DI the handle was created from, and the given argument.
+     *
+     * @throws DI.NotFoundException If no factory was found.
+     * @throws DI.DependencyLoopException If the value construction triggered a dependency loop.
+     */
+    public fun get(context: Any, arg: A): T = factory(context).invoke(arg)
+}
+
+/**
+ * Creates a handle that retrieves instances of `T` for the given type and tag.
+ *
+ * The binding is not looked up until the handle is first used.
+ *
+ * T generics will be preserved!
+ *
+ * @param T The type of object to retrieve.
+ * @param tag The bound tag, if any.
+ * @return A handle whose `get()` retrieves an instance of `T`.
+ */
+public inline fun <reified T : Any> DirectDIAware.handle(tag: Any? = null): ProviderHandle<T> =
+    directDI.ProviderHandle(generic(), tag)
+
+/**
+ * Creates a handle that retrieves instances of `T` for the given argument type, type and tag.
+ *
+ * The binding is not looked up until the handle is first used.
+ *
+ * A & T generics will be preserved!
+ *
+ * @param A The type of argument the factory takes.
+ * @param T The type of object to retrieve.
+ * @param tag The bound tag, if any.
+ * @return A handle whose `get(arg)` retrieves an instance of `T`.
+ */
+public inline fun <reified A : Any, reified T : Any> DirectDIAware.factoryHandle(tag: Any? = null): FactoryHandle<A, T> =
+    directDI.FactoryHandle(generic(), generic(), tag)
+
+/**
+ * Creates a handle that retrieves instances of `T` for the given type and tag.
+ *
+ * @see DirectDIAware.handle
+ */
+public inline fun <reified T : Any> DIAware.handle(tag: Any? = null): ProviderHandle<T> = direct.handle(tag)
+
+/**
+ * Creates a handle that retrieves instances of `T` for the given argument type, type and tag.
+ *
+ * @see DirectDIAware.factoryHandle
+ */
+public inline fun <reified A : Any, reified T : Any> DIAware.factoryHandle(tag: Any? = null): FactoryHandle<A, T> = direct.factoryHandle(tag)
@@ -0,0 +1,35 @@
+package org.kodein.di
+
+import org.kodein.di.internal.BindingDIImpl
+import org.kodein.type.TypeToken
+
+/**
+ * The retrieval plan of a constructor whose arguments are all retrieved from the container.
+ *
+ * The types of the constructor parameters are computed once, when the binding is declared.
+ * The factories that retrieve them are resolved the first time a binding DI uses the plan, and kept by that binding DI,
+ * so that each subsequent construction only calls them.
+ *
+ * @property types The types of the constructor parameters, in order.
+ */
+@PublishedApi
+internal class NewPlan(internal val types: Array<TypeToken<*>>) {
+
+    /**
+     * @return The factories of the constructor arguments, in order, each to be invoked with `Unit`.
+     */
+    fun factories(di: DirectDIAware): Array<(Unit) -> Any> {
+        val directDI = di.directDI
+        return (directDI as? BindingDIImpl<*, *, *>)?.planned(this) ?: resolve(directDI)
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    internal fun resolve(directDI: DirectDI): Array<(Unit) -> Any> =
+        Array(types.size) { directDI.Factory(TypeToken.Unit, types[it] as TypeToken<Any>, null) }
+}
+
+/**
+ * @return The constructor argument at [index], retrieved with its planned factory.
+ */
+@PublishedApi
+internal inline fun <reified P> Array<(Unit) -> Any>.arg(index: Int): P = get(index).invoke(Unit) as P
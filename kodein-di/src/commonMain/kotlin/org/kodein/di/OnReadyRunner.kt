@@ -0,0 +1,28 @@
+package org.kodein.di
+
+/**
+ * Runs the independent `onReady` callbacks of a DI container (including the creation of eager singletons).
+ *
+ * Independent callbacks may run concurrently: if one of them needs a value that is being created by another,
+ * it waits for it to be created.
+ *
+ * @see DI.MainBuilder.onReadyRunner
+ */
+public fun interface OnReadyRunner {
+
+    /**
+     * Runs all the given callbacks, and returns once they have all completed.
+     *
+     * If one or more callbacks fail, this should throw the first failure once all callbacks have completed.
+     *
+     * @param callbacks The callbacks to run.
+     */
+    public fun runAll(callbacks: List<() -> Unit>)
+
+    public companion object {
+        /**
+         * Runs all callbacks sequentially, on the thread that creates the DI container.
+         */
+        public val Sequential: OnReadyRunner = OnReadyRunner { callbacks -> callbacks.forEach { it() } }
+    }
+}
@@ -2,6 +2,7 @@ package org.kodein.di
 
 import org.kodein.di.bindings.BindingDI
 import org.kodein.di.bindings.Multiton
+import org.kodein.di.bindings.MultitonEviction
 import org.kodein.di.bindings.RefMaker
 import org.kodein.type.generic
 
@@ -13,6 +14,8 @@ import org.kodein.type.generic
  *
  * @param A The argument type.
  * @param T The created type.
+ * @param identity Whether arguments are compared by identity (`===`) instead of equality.
+ * @param eviction If not null, bounds the number of instances this multiton keeps.
  * @param creator The function that will be called the first time an instance is requested with a new argument.
  * Guaranteed to be called only once per argument. Should create a new instance.
  * @return A multiton ready to be bound.
@@ -20,8 +23,10 @@ import org.kodein.type.generic
 public inline fun <C : Any, reified A : Any, reified T : Any> DI.BindBuilder.WithScope<C>.multiton(
     ref: RefMaker? = null,
     sync: Boolean = true,
+    identity: Boolean = false,
+    eviction: MultitonEviction? = null,
     noinline creator: BindingDI<C>.(A) -> T,
-): Multiton<C, A, T> = Multiton(scope, contextType, explicitContext, generic(), generic(), ref, sync, creator)
+): Multiton<C, A, T> = Multiton(scope, contextType, explicitContext, generic(), generic(), ref, sync, identity, eviction, creator)
 
 /**
  * Binds a multiton: will create an instance on first request and will subsequently always return the same instance.
@@ -29,6 +34,9 @@ public inline fun <C : Any, reified A : Any, reified T : Any> DI.BindBuilder.Wit
  * T generics will be erased!
  *
  * @param T The created type.
+ * @param identity Whether arguments are compared by identity (`===`) instead of equality.
+ * @param eviction If not null, bounds the number of instances this multiton keeps.
+ * @param ref The reference maker that defines how long each instance is kept, or null for a strong reference.
  * @param creator The function that will be called the first time an instance is requested.
  * Guaranteed to be called only once. Should create a new instance.
  */
@@ -36,5 +44,8 @@ public inline fun <reified A : Any, reified T : Any> DI.Builder.bindMultiton(
     tag: Any? = null,
     overrides: Boolean? = null,
     sync: Boolean = true,
+    identity: Boolean = false,
+    eviction: MultitonEviction? = null,
+    ref: RefMaker? = null,
     noinline creator: DirectDI.(A) -> T,
-): Unit = Bind(tag = tag, overrides = overrides, binding = multiton(sync = sync, creator = creator))
+): Unit = Bind(tag = tag, overrides = overrides, binding = multiton(ref = ref, sync = sync, identity = identity, eviction = eviction, creator = creator))
@@ -59,7 +59,17 @@ public inline fun <reified T : Any, reified P1> DI.Builder.bindProviderOf(
     crossinline constructor: (P1) -> T,
     tag: Any? = null,
     overrides: Boolean? = null,
-): Unit = bindProvider(tag, overrides) { new(constructor) }
+): Unit {
+    val plan = NewPlan(arrayOf(
+        generic<P1 & Any>(),
+    ))
+    bindProvider(tag, overrides) {
+        val f = plan.factories(this)
+        constructor(
+            f.arg(0),
+        )
+    }
+}
 
 /**
  * @see bindProviderOf
@@ -68,7 +78,17 @@ public inline fun <reified T : Any, reified P1, reified P2> DI.Builder.bindProvi
     crossinline constructor: (P1, P2) -> T,
     tag: Any? = null,
     overrides: Boolean? = null,
-): Unit = bindProvider(tag, overrides) { new(constructor) }
+): Unit {
+    val plan = NewPlan(arrayOf(
+        generic<P1 & Any>(), generic<P2 & Any>(),
+    ))
+    bindProvider(tag, overrides) {
+        val f = plan.factories(this)
+        constructor(
+            f.arg(0), f.arg(1),
+        )
+    }
+}
 
 /**
  * @see bindProviderOf
@@ -81,7 +101,19 @@ public inline fun <
     crossinline constructor: (P1, P2, P3) -> T,
     tag: Any? = null,
     overrides: Boolean? = null,
-): Unit = bindProvider(tag, overrides) { new(constructor) }
+): Unit {
+    val plan = NewPlan(arrayOf(
+        generic<P1 & Any>(), generic<P2 & Any>(),
+        generic<P3 & Any>(),
+    ))
+    bindProvider(tag, overrides) {
+        val f = plan.factories(this)
+        constructor(
+            f.arg(0), f.arg(1),
+            f.arg(2),
+        )
+    }
+}
 
 /**
  * @see bindProviderOf
@@ -94,7 +126,19 @@ public inline fun <
     crossinline constructor: (P1, P2, P3, P4) -> T,
     tag: Any? = null,
     overrides: Boolean? = null,
-): Unit = bindProvider(tag, overrides) { new(constructor) }
+): Unit {
+    val plan = NewPlan(arrayOf(
+        generic<P1 & Any>(), generic<P2 & Any>(),
+        generic<P3 & Any>(), generic<P4 & Any>(),
+    ))
+    bindProvider(tag, overrides) {
+        val f = plan.factories(this)
+        constructor(
+            f.arg(0), f.arg(1),
+            f.arg(2), f.arg(3),
+        )
+    }
+}
 
 /**
  * @see bindProviderOf
@@ -108,7 +152,21 @@ public inline fun <
     crossinline constructor: (P1, P2, P3, P4, P5) -> T,
     tag: Any? = null,
     overrides: Boolean? = null,
-): Unit = bindProvider(tag, overrides) { new(constructor) }
+): Unit {
+    val plan = NewPlan(arrayOf(
+        generic<P1 & Any>(), generic<P2 & Any>(),
+        generic<P3 & Any>(), generic<P4 & Any>(),
+        generic<P5 & Any>(),
+    ))
+    bindProvider(tag, overrides) {
+        val f = plan.factories(this)
+        constructor(
+            f.arg(0), f.arg(1),
+            f.arg(2), f.arg(3),
+            f.arg(4),
+        )
+    }
+}
 
 /**
  * @see bindProviderOf
@@ -122,7 +180,21 @@ public inline fun <
     crossinline constructor: (P1, P2, P3, P4, P5, P6) -> T,
     tag: Any? = null,
     overrides: Boolean? = null,
-): Unit = bindProvider(tag, overrides) { new(constructor) }
+): Unit {
+    val plan = NewPlan(arrayOf(
+        generic<P1 & Any>(), generic<P2 & Any>(),
+        generic<P3 & Any>(), generic<P4 & Any>(),
+        generic<P5 & Any>(), generic<P6 & Any>(),
+    ))
+    bindProvider(tag, overrides) {
+        val f = plan.factories(this)
+        constructor(
+            f.arg(0), f.arg(1),
+            f.arg(2), f.arg(3),
+            f.arg(4), f.arg(5),
+        )
+    }
+}
 
 /**
  * @see bindProviderOf
@@ -137,7 +209,23 @@ public inline fun <
     crossinline constructor: (P1, P2, P3, P4, P5, P6, P7) -> T,
     tag: Any? = null,
     overrides: Boolean? = null,
-): Unit = bindProvider(tag, overrides) { new(constructor) }
+): Unit {
+    val plan = NewPlan(arrayOf(
+        generic<P1 & Any>(), generic<P2 & Any>(),
+        generic<P3 & Any>(), generic<P4 & Any>(),
+        generic<P5 & Any>(), generic<P6 & Any>(),
+        generic<P7 & Any>(),
+    ))
+    bindProvider(tag, overrides) {
+        val f = plan.factories(this)
+        constructor(
+            f.arg(0), f.arg(1),
+            f.arg(2), f.arg(3),
+            f.arg(4), f.arg(5),
+            f.arg(6),
+        )
+    }
+}
 
 /**
  * @see bindProviderOf
@@ -152,7 +240,23 @@ public inline fun <
     crossinline constructor: (P1, P2, P3, P4, P5, P6, P7, P8) -> T,
     tag: Any? = null,
     overrides: Boolean? = null,
-): Unit = bindProvider(tag, overrides) { new(constructor) }
+): Unit {
+    val plan = NewPlan(arrayOf(
+        generic<P1 & Any>(), generic<P2 & Any>(),
+        generic<P3 & Any>(), generic<P4 & Any>(),
+        generic<P5 & Any>(), generic<P6 & Any>(),
+        generic<P7 & Any>(), generic<P8 & Any>(),
+    ))
+    bindProvider(tag, overrides) {
+        val f = plan.factories(this)
+        constructor(
+            f.arg(0), f.arg(1),
+            f.arg(2), f.arg(3),
+            f.arg(4), f.arg(5),
+            f.arg(6), f.arg(7),
+        )
+    }
+}
 
 /**
  * @see bindProviderOf
@@ -168,7 +272,25 @@ public inline fun <
     crossinline constructor: (P1, P2, P3, P4, P5, P6, P7, P8, P9) -> T,
     tag: Any? = null,
     overrides: Boolean? = null,
-): Unit = bindProvider(tag, overrides) { new(constructor) }
+): Unit {
+    val plan = NewPlan(arrayOf(
+        generic<P1 & Any>(), generic<P2 & Any>(),
+        generic<P3 & Any>(), generic<P4 & Any>(),
+        generic<P5 & Any>(), generic<P6 & Any>(),
+        generic<P7 & Any>(), generic<P8 & Any>(),
+        generic<P9 & Any>(),
+    ))
+    bindProvider(tag, overrides) {
+        val f = plan.factories(this)
+        constructor(
+            f.arg(0), f.arg(1),
+            f.arg(2), f.arg(3),
+            f.arg(4), f.arg(5),
+            f.arg(6), f.arg(7),
+            f.arg(8),
+        )
+    }
+}
 
 /**
  * @see bindProviderOf
@@ -184,7 +306,25 @@ public inline fun <
     crossinline constructor: (P1, P2, P3, P4, P5, P6, P7, P8, P9, P10) -> T,
     tag: Any? = null,
     overrides: Boolean? = null,
-): Unit = bindProvider(tag, overrides) { new(constructor) }
+): Unit {
+    val plan = NewPlan(arrayOf(
+        generic<P1 & Any>(), generic<P2 & Any>(),
+        generic<P3 & Any>(), generic<P4 & Any>(),
+        generic<P5 & Any>(), generic<P6 & Any>(),
+        generic<P7 & Any>(), generic<P8 & Any>(),
+        generic<P9 & Any>(), generic<P10 & Any>(),
+    ))
+    bindProvider(tag, overrides) {
+        val f = plan.factories(this)
+        constructor(
+            f.arg(0), f.arg(1),
+            f.arg(2), f.arg(3),
+            f.arg(4), f.arg(5),
+            f.arg(6), f.arg(7),
+            f.arg(8), f.arg(9),
+        )
+    }
+}
 
 /**
  * @see bindProviderOf
@@ -201,7 +341,27 @@ public inline fun <
     crossinline constructor: (P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11) -> T,
     tag: Any? = null,
     overrides: Boolean? = null,
-): Unit = bindProvider(tag, overrides) { new(constructor) }
+): Unit {
+    val plan = NewPlan(arrayOf(
+        generic<P1 & Any>(), generic<P2 & Any>(),
+        generic<P3 & Any>(), generic<P4 & Any>(),
+        generic<P5 & Any>(), generic<P6 & Any>(),
+        generic<P7 & Any>(), generic<P8 & Any>(),
+        generic<P9 & Any>(), generic<P10 & Any>(),
+        generic<P11 & Any>(),
+    ))
+    bindProvider(tag, overrides) {
+        val f = plan.factories(this)
+        constructor(
+            f.arg(0), f.arg(1),
+            f.arg(2), f.arg(3),
+            f.arg(4), f.arg(5),
+            f.arg(6), f.arg(7),
+            f.arg(8), f.arg(9),
+            f.arg(10),
+        )
+    }
+}
 
 /**
  * @see bindProviderOf
@@ -218,7 +378,27 @@ public inline fun <
     crossinline constructor: (P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12) -> T,
     tag: Any? = null,
     overrides: Boolean? = null,
-): Unit = bindProvider(tag, overrides) { new(constructor) }
+): Unit {
+    val plan = NewPlan(arrayOf(
+        generic<P1 & Any>(), generic<P2 & Any>(),
+        generic<P3 & Any>(), generic<P4 & Any>(),
+        generic<P5 & Any>(), generic<P6 & Any>(),
+        generic<P7 & Any>(), generic<P8 & Any>(),
+        generic<P9 & Any>(), generic<P10 & Any>(),
+        generic<P11 & Any>(), generic<P12 & Any>(),
+    ))
+    bindProvider(tag, overrides) {
+        val f = plan.factories(this)
+        constructor(
+            f.arg(0), f.arg(1),
+            f.arg(2), f.arg(3),
+            f.arg(4), f.arg(5),
+            f.arg(6), f.arg(7),
+            f.arg(8), f.arg(9),
+            f.arg(10), f.arg(11),
+        )
+    }
+}
 
 /**
  * @see bindProviderOf
@@ -236,7 +416,29 @@ public inline fun <
     crossinline constructor: (P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13) -> T,
     tag: Any? = null,
     overrides: Boolean? = null,
-): Unit = bindProvider(tag, overrides) { new(constructor) }
+): Unit {
+    val plan = NewPlan(arrayOf(
+        generic<P1 & Any>(), generic<P2 & Any>(),
+        generic<P3 & Any>(), generic<P4 & Any>(),
+        generic<P5 & Any>(), generic<P6 & Any>(),
+        generic<P7 & Any>(), generic<P8 & Any>(),
+        generic<P9 & Any>(), generic<P10 & Any>(),
+        generic<P11 & Any>(), generic<P12 & Any>(),
+        generic<P13 & Any>(),
+    ))
+    bindProvider(tag, overrides) {
+        val f = plan.factories(this)
+        constructor(
+            f.arg(0), f.arg(1),
+            f.arg(2), f.arg(3),
+            f.arg(4), f.arg(5),
+            f.arg(6), f.arg(7),
+            f.arg(8), f.arg(9),
+            f.arg(10), f.arg(11),
+            f.arg(12),
+        )
+    }
+}
 
 /**
  * @see bindProviderOf
@@ -254,7 +456,29 @@ public inline fun <
     crossinline constructor: (P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13, P14) -> T,
     tag: Any? = null,
     overrides: Boolean? = null,
-): Unit = bindProvider(tag, overrides) { new(constructor) }
+): Unit {
+    val plan = NewPlan(arrayOf(
+        generic<P1 & Any>(), generic<P2 & Any>(),
+        generic<P3 & Any>(), generic<P4 & Any>(),
+        generic<P5 & Any>(), generic<P6 & Any>(),
+        generic<P7 & Any>(), generic<P8 & Any>(),
+        generic<P9 & Any>(), generic<P10 & Any>(),
+        generic<P11 & Any>(), generic<P12 & Any>(),
+        generic<P13 & Any>(), generic<P14 & Any>(),
+    ))
+    bindProvider(tag, overrides) {
+        val f = plan.factories(this)
+        constructor(
+            f.arg(0), f.arg(1),
+            f.arg(2), f.arg(3),
+            f.arg(4), f.arg(5),
+            f.arg(6), f.arg(7),
+            f.arg(8), f.arg(9),
+            f.arg(10), f.arg(11),
+            f.arg(12), f.arg(13),
+        )
+    }
+}
 
 /**
  * @see bindProviderOf
@@ -273,7 +497,31 @@ public inline fun <
     crossinline constructor: (P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13, P14, P15) -> T,
     tag: Any? = null,
     overrides: Boolean? = null,
-): Unit = bindProvider(tag, overrides) { new(constructor) }
+): Unit {
+    val plan = NewPlan(arrayOf(
+        generic<P1 & Any>(), generic<P2 & Any>(),
+        generic<P3 & Any>(), generic<P4 & Any>(),
+        generic<P5 & Any>(), generic<P6 & Any>(),
+        generic<P7 & Any>(), generic<P8 & Any>(),
+        generic<P9 & Any>(), generic<P10 & Any>(),
+        generic<P11 & Any>(), generic<P12 & Any>(),
+        generic<P13 & Any>(), generic<P14 & Any>(),
+        generic<P15 & Any>(),
+    ))
+    bindProvider(tag, overrides) {
+        val f = plan.factories(this)
+        constructor(
+            f.arg(0), f.arg(1),
+            f.arg(2), f.arg(3),
+            f.arg(4), f.arg(5),
+            f.arg(6), f.arg(7),
+            f.arg(8), f.arg(9),
+            f.arg(10), f.arg(11),
+            f.arg(12), f.arg(13),
+            f.arg(14),
+        )
+    }
+}
 
 /**
  * @see bindProviderOf
@@ -292,7 +540,31 @@ public inline fun <
     crossinline constructor: (P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13, P14, P15, P16) -> T,
     tag: Any? = null,
     overrides: Boolean? = null,
-): Unit = bindProvider(tag, overrides) { new(constructor) }
+): Unit {
+    val plan = NewPlan(arrayOf(
+        generic<P1 & Any>(), generic<P2 & Any>(),
+        generic<P3 & Any>(), generic<P4 & Any>(),
+        generic<P5 & Any>(), generic<P6 & Any>(),
+        generic<P7 & Any>(), generic<P8 & Any>(),
+        generic<P9 & Any>(), generic<P10 & Any>(),
+        generic<P11 & Any>(), generic<P12 & Any>(),
+        generic<P13 & Any>(), generic<P14 & Any>(),
+        generic<P15 & Any>(), generic<P16 & Any>(),
+    ))
+    bindProvider(tag, overrides) {
+        val f = plan.factories(this)
+        constructor(
+            f.arg(0), f.arg(1),
+            f.arg(2), f.arg(3),
+            f.arg(4), f.arg(5),
+            f.arg(6), f.arg(7),
+            f.arg(8), f.arg(9),
+            f.arg(10), f.arg(11),
+            f.arg(12), f.arg(13),
+            f.arg(14), f.arg(15),
+        )
+    }
+}
 
 /**
  * @see bindProviderOf
@@ -312,7 +584,33 @@ public inline fun <
     crossinline constructor: (P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13, P14, P15, P16, P17) -> T,
     tag: Any? = null,
     overrides: Boolean? = null,
-): Unit = bindProvider(tag, overrides) { new(constructor) }
+): Unit {
+    val plan = NewPlan(arrayOf(
+        generic<P1 & Any>(), generic<P2 & Any>(),
+        generic<P3 & Any>(), generic<P4 & Any>(),
+        generic<P5 & Any>(), generic<P6 & Any>(),
+        generic<P7 & Any>(), generic<P8 & Any>(),
+        generic<P9 & Any>(), generic<P10 & Any>(),
+        generic<P11 & Any>(), generic<P12 & Any>(),
+        generic<P13 & Any>(), generic<P14 & Any>(),
+        generic<P15 & Any>(), generic<P16 & Any>(),
+        generic<P17 & Any>(),
+    ))
+    bindProvider(tag, overrides) {
+        val f = plan.factories(this)
+        constructor(
+            f.arg(0), f.arg(1),
+            f.arg(2), f.arg(3),
+            f.arg(4), f.arg(5),
+            f.arg(6), f.arg(7),
+            f.arg(8), f.arg(9),
+            f.arg(10), f.arg(11),
+            f.arg(12), f.arg(13),
+            f.arg(14), f.arg(15),
+            f.arg(16),
+        )
+    }
+}
 
 /**
  * @see bindProviderOf
@@ -332,7 +630,33 @@ public inline fun <
     crossinline constructor: (P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13, P14, P15, P16, P17, P18) -> T,
     tag: Any? = null,
     overrides: Boolean? = null,
-): Unit = bindProvider(tag, overrides) { new(constructor) }
+): Unit {
+    val plan = NewPlan(arrayOf(
+        generic<P1 & Any>(), generic<P2 & Any>(),
+        generic<P3 & Any>(), generic<P4 & Any>(),
+        generic<P5 & Any>(), generic<P6 & Any>(),
+        generic<P7 & Any>(), generic<P8 & Any>(),
+        generic<P9 & Any>(), generic<P10 & Any>(),
+        generic<P11 & Any>(), generic<P12 & Any>(),
+        generic<P13 & Any>(), generic<P14 & Any>(),
+        generic<P15 & Any>(), generic<P16 & Any>(),
+        generic<P17 & Any>(), generic<P18 & Any>(),
+    ))
+    bindProvider(tag, overrides) {
+        val f = plan.factories(this)
+        constructor(
+            f.arg(0), f.arg(1),
+            f.arg(2), f.arg(3),
+            f.arg(4), f.arg(5),
+            f.arg(6), f.arg(7),
+            f.arg(8), f.arg(9),
+            f.arg(10), f.arg(11),
+            f.arg(12), f.arg(13),
+            f.arg(14), f.arg(15),
+            f.arg(16), f.arg(17),
+        )
+    }
+}
 
 /**
  * @see bindProviderOf
@@ -353,7 +677,35 @@ public inline fun <
     crossinline constructor: (P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13, P14, P15, P16, P17, P18, P19) -> T,
     tag: Any? = null,
     overrides: Boolean? = null,
-): Unit = bindProvider(tag, overrides) { new(constructor) }
+): Unit {
+    val plan = NewPlan(arrayOf(
+        generic<P1 & Any>(), generic<P2 & Any>(),
+        generic<P3 & Any>(), generic<P4 & Any>(),
+        generic<P5 & Any>(), generic<P6 & Any>(),
+        generic<P7 & Any>(), generic<P8 & Any>(),
+        generic<P9 & Any>(), generic<P10 & Any>(),
+        generic<P11 & Any>(), generic<P12 & Any>(),
+        generic<P13 & Any>(), generic<P14 & Any>(),
+        generic<P15 & Any>(), generic<P16 & Any>(),
+        generic<P17 & Any>(), generic<P18 & Any>(),
+        generic<P19 & Any>(),
+    ))
+    bindProvider(tag, overrides) {
+        val f = plan.factories(this)
+        constructor(
+            f.arg(0), f.arg(1),
+            f.arg(2), f.arg(3),
+            f.arg(4), f.arg(5),
+            f.arg(6), f.arg(7),
+            f.arg(8), f.arg(9),
+            f.arg(10), f.arg(11),
+            f.arg(12), f.arg(13),
+            f.arg(14), f.arg(15),
+            f.arg(16), f.arg(17),
+            f.arg(18),
+        )
+    }
+}
 
 /**
  * @see bindProviderOf
@@ -374,7 +726,35 @@ public inline fun <
     crossinline constructor: (P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13, P14, P15, P16, P17, P18, P19, P20) -> T,
     tag: Any? = null,
     overrides: Boolean? = null,
-): Unit = bindProvider(tag, overrides) { new(constructor) }
+): Unit {
+    val plan = NewPlan(arrayOf(
+        generic<P1 & Any>(), generic<P2 & Any>(),
+        generic<P3 & Any>(), generic<P4 & Any>(),
+        generic<P5 & Any>(), generic<P6 & Any>(),
+        generic<P7 & Any>(), generic<P8 & Any>(),
+        generic<P9 & Any>(), generic<P10 & Any>(),
+        generic<P11 & Any>(), generic<P12 & Any>(),
+        generic<P13 & Any>(), generic<P14 & Any>(),
+        generic<P15 & Any>(), generic<P16 & Any>(),
+        generic<P17 & Any>(), generic<P18 & Any>(),
+        generic<P19 & Any>(), generic<P20 & Any>(),
+    ))
+    bindProvider(tag, overrides) {
+        val f = plan.factories(this)
+        constructor(
+            f.arg(0), f.arg(1),
+            f.arg(2), f.arg(3),
+            f.arg(4), f.arg(5),
+            f.arg(6), f.arg(7),
+            f.arg(8), f.arg(9),
+            f.arg(10), f.arg(11),
+            f.arg(12), f.arg(13),
+            f.arg(14), f.arg(15),
+            f.arg(16), f.arg(17),
+            f.arg(18), f.arg(19),
+        )
+    }
+}
 
 /**
  * @see bindProviderOf
@@ -396,7 +776,37 @@ public inline fun <
     crossinline constructor: (P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13, P14, P15, P16, P17, P18, P19, P20, P21) -> T,
     tag: Any? = null,
     overrides: Boolean? = null,
-): Unit = bindProvider(tag, overrides) { new(constructor) }
+): Unit {
+    val plan = NewPlan(arrayOf(
+        generic<P1 & Any>(), generic<P2 & Any>(),
+        generic<P3 & Any>(), generic<P4 & Any>(),
+        generic<P5 & Any>(), generic<P6 & Any>(),
+        generic<P7 & Any>(), generic<P8 & Any>(),
+        generic<P9 & Any>(), generic<P10 & Any>(),
+        generic<P11 & Any>(), generic<P12 & Any>(),
+        generic<P13 & Any>(), generic<P14 & Any>(),
+        generic<P15 & Any>(), generic<P16 & Any>(),
+        generic<P17 & Any>(), generic<P18 & Any>(),
+        generic<P19 & Any>(), generic<P20 & Any>(),
+        generic<P21 & Any>(),
+    ))
+    bindProvider(tag, overrides) {
+        val f = plan.factories(this)
+        constructor(
+            f.arg(0), f.arg(1),
+            f.arg(2), f.arg(3),
+            f.arg(4), f.arg(5),
+            f.arg(6), f.arg(7),
+            f.arg(8), f.arg(9),
+            f.arg(10), f.arg(11),
+            f.arg(12), f.arg(13),
+            f.arg(14), f.arg(15),
+            f.arg(16), f.arg(17),
+            f.arg(18), f.arg(19),
+            f.arg(20),
+        )
+    }
+}
 
 /**
  * @see bindProviderOf
@@ -418,6 +828,36 @@ public inline fun <
     crossinline constructor: (P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13, P14, P15, P16, P17, P18, P19, P20, P21, P22) -> T,
     tag: Any? = null,
     overrides: Boolean? = null,
-): Unit = bindProvider(tag, overrides) { new(constructor) }
+): Unit {
+    val plan = NewPlan(arrayOf(
+        generic<P1 & Any>(), generic<P2 & Any>(),
+        generic<P3 & Any>(), generic<P4 & Any>(),
+        generic<P5 & Any>(), generic<P6 & Any>(),
+        generic<P7 & Any>(), generic<P8 & Any>(),
+        generic<P9 & Any>(), generic<P10 & Any>(),
+        generic<P11 & Any>(), generic<P12 & Any>(),
+        generic<P13 & Any>(), generic<P14 & Any>(),
+        generic<P15 & Any>(), generic<P16 & Any>(),
+        generic<P17 & Any>(), generic<P18 & Any>(),
+        generic<P19 & Any>(), generic<P20 & Any>(),
+        generic<P21 & Any>(), generic<P22 & Any>(),
+    ))
+    bindProvider(tag, overrides) {
+        val f = plan.factories(this)
+        constructor(
+            f.arg(0), f.arg(1),
+            f.arg(2), f.arg(3),
+            f.arg(4), f.arg(5),
+            f.arg(6), f.arg(7),
+            f.arg(8), f.arg(9),
+            f.arg(10), f.arg(11),
+            f.arg(12), f.arg(13),
+            f.arg(14), f.arg(15),
+            f.arg(16), f.arg(17),
+            f.arg(18), f.arg(19),
+            f.arg(20), f.arg(21),
+        )
+    }
+}
 
 // endregion
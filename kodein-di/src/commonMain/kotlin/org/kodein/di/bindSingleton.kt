@@ -44,6 +44,7 @@ public inline fun <reified T : Any> DI.Builder.eagerSingleton(
  * T generics will be erased!
  *
  * @param T The created type.
+ * @param ref The reference maker that defines how long the instance is kept, or null for a strong reference.
  * @param creator The function that will be called the first time an instance is requested.
  * Guaranteed to be called only once. Should create a new instance.
  */
@@ -51,8 +52,9 @@ public inline fun <reified T : Any> DI.Builder.bindSingleton(
     tag: Any? = null,
     overrides: Boolean? = null,
     sync: Boolean = true,
+    ref: RefMaker? = null,
     noinline creator: NoArgBindingDI<Any>.() -> T,
-): Unit = Bind(tag = tag, overrides = overrides, binding = singleton(sync = sync, creator = creator))
+): Unit = Bind(tag = tag, overrides = overrides, binding = singleton(ref = ref, sync = sync, creator = creator))
 
 /**
  * Binds an eager singleton: will create an instance as soon as kodein is ready
@@ -1,6 +1,7 @@
 package org.kodein.di.bindings
 
 import org.kodein.di.DI
+import org.kodein.type.TypeToken
 
 /**
  * An external source can provide to an answer to a retrieval that do not correspond to any binding that is registered in DI.
@@ -16,14 +17,81 @@ public interface ExternalSource {
      */
     public fun getFactory(di: BindingDI<*>, key: DI.Key<*, *, *>): ((Any?) -> Any)?
 
+    /**
+     * Whether this source may answer a key that it did not answer before, for example because its answers depend on the retrieval context, or on a state that changes over time.
+     *
+     * When none of its external sources is dynamic, a DI container remembers the keys that neither its bindings nor its external sources answered,
+     * so that retrieving them again (e.g. with `instanceOrNull`) does not query its sources.
+     *
+     * Defaults to true: a source that answers (or not) according to the key only should override it to false.
+     */
+    public val isDynamic: Boolean get() = true
+
     public companion object {
         /**
          * Util to create an external source from a simple lambda function.
          *
+         * @param dynamic Whether the source may answer a key that it did not answer before (see [ExternalSource.isDynamic]).
          * @param f The function that takes a Key and return a factory.
          */
-        public inline operator fun invoke(crossinline f: BindingDI<*>.(DI.Key<*, *, *>) -> ((Any?) -> Any)?): ExternalSource = object : ExternalSource {
+        public inline operator fun invoke(dynamic: Boolean = true, crossinline f: BindingDI<*>.(DI.Key<*, *, *>) -> ((Any?) -> Any)?): ExternalSource = object : ExternalSource {
             override fun getFactory(di: BindingDI<*>, key: DI.Key<*, *, *>): ((Any?) -> Any)? = di.f(key)
+            override val isDynamic: Boolean get() = dynamic
+        }
+    }
+}
+
+/**
+ * An external source that declares which retrievals it answers, so that the DI container only queries it for those,
+ * and whether its answers can be cached, so that the DI container queries it only once per key.
+ */
+public interface IndexedExternalSource : ExternalSource {
+
+    /**
+     * The types this source answers: the DI container indexes them, and only queries this source for keys whose type is one of them.
+     */
+    public val types: Collection<TypeToken<*>>
+
+    /**
+     * Whether this source answers retrievals with the given tag, checked before querying it.
+     *
+     * Defaults to any tag.
+     */
+    public fun acceptsTag(tag: Any?): Boolean = true
+
+    /**
+     * Whether the factory returned by this source for a key can be used for every retrieval of that key, whatever its context.
+     * If it can, the DI container stores it with its resolved factories, and never queries this source for that key again.
+     *
+     * Defaults to false.
+     */
+    public val isCacheable: Boolean get() = false
+
+    public companion object {
+        /**
+         * Util to create an indexed external source from a simple lambda function.
+         *
+         * @param types The types this source answers (see [IndexedExternalSource.types]).
+         * @param cacheable Whether the returned factories can be used for every retrieval of their key (see [IndexedExternalSource.isCacheable]).
+         * @param dynamic Whether the source may answer a key that it did not answer before (see [ExternalSource.isDynamic]).
+         * @param tags The tags this source answers (see [IndexedExternalSource.acceptsTag]).
+         * @param f The function that takes a Key and return a factory.
+         */
+        public inline operator fun invoke(
+            types: Collection<TypeToken<*>>,
+            cacheable: Boolean = false,
+            dynamic: Boolean = true,
+            noinline tags: (Any?) -> Boolean = { true },
+            crossinline f: BindingDI<*>.(DI.Key<*, *, *>) -> ((Any?) -> Any)?,
+        ): IndexedExternalSource {
+            val served = types
+            return object : IndexedExternalSource {
+                override val types: Collection<TypeToken<*>> get() = served
+                override fun acceptsTag(tag: Any?): Boolean = tags(tag)
+                override val isCacheable: Boolean get() = cacheable
+                override val isDynamic: Boolean get() = dynamic
+                override fun getFactory(di: BindingDI<*>, key: DI.Key<*, *, *>): ((Any?) -> Any)? = di.f(key)
+            }
         }
     }
 }
@@ -0,0 +1,76 @@
+package org.kodein.di.bindings
+
+import kotlinx.atomicfu.atomic
+import kotlin.time.Duration
+import kotlin.time.TimeSource
+
+/**
+ * Bounds the instances kept by a [Multiton]: once the multiton holds [maxSize] instances, creating a new one evicts an existing one according to the [policy].
+ * Evicted instances that are [AutoCloseable] are closed, just like instances removed from a [ScopeRegistry].
+ *
+ * An eviction can be shared by multiple multitons (or by a multiton used in multiple scope registries):
+ * each keeps its own instances, but the counters are shared.
+ *
+ * @property policy How the instance to evict is chosen.
+ * @property maxSize The maximum number of instances a multiton keeps in a scope registry.
+ * @property timeToIdle With [Policy.TimeToIdle], the duration after which an instance that has not been retrieved is evicted.
+ * @property timeSource The time source used to measure idle durations.
+ */
+public class MultitonEviction private constructor(
+    public val policy: Policy,
+    public val maxSize: Int,
+    public val timeToIdle: Duration,
+    public val timeSource: TimeSource,
+) {
+    init {
+        require(maxSize > 0) { "maxSize must be positive" }
+        require(timeToIdle.isPositive()) { "timeToIdle must be positive" }
+    }
+
+    public enum class Policy {
+        /** Evicts the instance that was retrieved the longest time ago. */
+        LeastRecentlyUsed,
+
+        /** Evicts the instance that was retrieved the fewest times. */
+        LeastFrequentlyUsed,
+
+        /** Evicts instances that were not retrieved for [timeToIdle], and the least recently used instance when full. */
+        TimeToIdle,
+    }
+
+    private val _hits = atomic(0L)
+    private val _misses = atomic(0L)
+    private val _evictions = atomic(0L)
+
+    /** Number of retrievals that returned an existing instance. */
+    public val hitCount: Long get() = _hits.value
+
+    /** Number of retrievals that created a new instance. */
+    public val missCount: Long get() = _misses.value
+
+    /** Number of instances that were evicted. */
+    public val evictionCount: Long get() = _evictions.value
+
+    internal fun recordHit() { _hits.incrementAndGet() }
+    internal fun recordMiss() { _misses.incrementAndGet() }
+    internal fun recordEviction() { _evictions.incrementAndGet() }
+
+    override fun toString(): String = when (policy) {
+        Policy.TimeToIdle -> "timeToIdle($timeToIdle, $maxSize)"
+        else -> "${policy.name.filter { it.isUpperCase() }.lowercase()}($maxSize)"
+    }
+
+    public companion object {
+        /** Keeps at most [maxSize] instances, evicting the least recently used one. */
+        public fun lru(maxSize: Int): MultitonEviction =
+            MultitonEviction(Policy.LeastRecentlyUsed, maxSize, Duration.INFINITE, TimeSource.Monotonic)
+
+        /** Keeps at most [maxSize] instances, evicting the least frequently used one. */
+        public fun lfu(maxSize: Int): MultitonEviction =
+            MultitonEviction(Policy.LeastFrequentlyUsed, maxSize, Duration.INFINITE, TimeSource.Monotonic)
+
+        /** Evicts instances that were not retrieved for [timeToIdle], and keeps at most [maxSize] instances. */
+        public fun timeToIdle(timeToIdle: Duration, maxSize: Int = Int.MAX_VALUE, timeSource: TimeSource = TimeSource.Monotonic): MultitonEviction =
+            MultitonEviction(Policy.TimeToIdle, maxSize, timeToIdle, timeSource)
+    }
+}
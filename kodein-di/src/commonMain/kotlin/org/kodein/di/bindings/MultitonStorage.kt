@@ -0,0 +1,372 @@
+package org.kodein.di.bindings
+
+import kotlinx.atomicfu.locks.SynchronizedObject
+import org.kodein.di.internal.OwnedLock
+import org.kodein.di.internal.identityHashCode
+import org.kodein.di.internal.mayLock
+import org.kodein.di.internal.maySynchronized
+import org.kodein.di.internal.newConcurrentMap
+import org.kodein.di.internal.withOwnership
+import org.kodein.type.TypeToken
+import org.kodein.type.erased
+import org.kodein.type.generic
+import kotlin.concurrent.Volatile
+import kotlin.time.TimeMark
+
+/**
+ * Storage of the instances of a single [Multiton] binding, which is itself stored as one value of a [ScopeRegistry].
+ *
+ * Each argument has its own slot, which is also the lock that guards the creation of its instance,
+ * so that instances of different arguments can be created concurrently, and an instance that has already been created is retrieved without locking.
+ *
+ * Closing the storage (which happens when it is removed from its registry) closes all its instances.
+ *
+ * @param A The argument type.
+ */
+internal sealed class MultitonStorage<in A> : AutoCloseable {
+
+    /**
+     * The slot of an argument.
+     *
+     * @property value The instance created for the argument, or null if it has not been created yet.
+     */
+    open class Slot : OwnedLock() {
+        @Volatile var value: Any? = null
+    }
+
+    protected val lock: SynchronizedObject = SynchronizedObject()
+
+    @Volatile
+    protected var closed: Boolean = false
+        private set
+
+    /**
+     * Finds the slot of an argument, without locking.
+     * May miss a slot that is being inserted by another thread.
+     */
+    protected abstract fun findSlot(arg: A): Slot?
+
+    /**
+     * Inserts a new slot for an argument. Always called while holding the storage lock.
+     */
+    protected abstract fun insertSlot(arg: A): Slot
+
+    /**
+     * All inserted slots. Always called while holding the storage lock.
+     */
+    protected abstract fun slots(): List<Slot>
+
+    /**
+     * @return The instance created for the argument, or null if it has not been created yet.
+     */
+    open fun getOrNull(arg: A): Any? = findSlot(arg)?.value
+
+    /**
+     * @return The instance of the argument, created by [creator] if needed, or null if this storage has been closed.
+     */
+    open fun getOrCreate(arg: A, creator: () -> Any): Any? {
+        val slot = findSlot(arg) ?: maySynchronized(lock) {
+            if (closed) return null
+            findSlot(arg) ?: insertSlot(arg)
+        }
+        return slot.withOwnership {
+            if (closed) return null
+            slot.value ?: creator().also { slot.value = it }
+        }
+    }
+
+    /**
+     * Empties the slot, waiting for its value to be created if it is being created, and closes its value.
+     */
+    protected fun dispose(slot: Slot) {
+        val value = mayLock(slot.lock) { slot.value.also { slot.value = null } }
+        (value as? AutoCloseable)?.close()
+    }
+
+    override fun close() {
+        val slots = maySynchronized(lock) {
+            closed = true
+            slots()
+        }
+        slots.forEach { dispose(it) }
+    }
+
+    /**
+     * Arguments compared by equality, stored in a concurrent map.
+     */
+    private class Equality : MultitonStorage<Any?>() {
+        private val _slots = newConcurrentMap<Any, Slot>()
+
+        override fun findSlot(arg: Any?): Slot? = _slots[arg ?: NullArg]
+
+        override fun insertSlot(arg: Any?): Slot = Slot().also { _slots[arg ?: NullArg] = it }
+
+        override fun slots(): List<Slot> = _slots.values.toList()
+    }
+
+    /** Concurrent maps do not support null keys. */
+    private object NullArg
+
+    /**
+     * Arguments compared by equality, with a bounded number of instances.
+     *
+     * Each retrieval locks the storage to record the usage of the instance, but instances are still created (and closed) outside the storage lock.
+     * An evicted slot is marked as removed, so that an instance is never created in a slot that is not in the storage anymore.
+     * Only slots whose instance has been created count against the maximum size, and the slot of a creation that fails is removed.
+     */
+    private class Bounded(private val eviction: MultitonEviction) : MultitonStorage<Any?>() {
+        private class BoundedSlot(val key: Any) : Slot() {
+            @Volatile var removed = false
+            var uses = 0L
+            var lastAccess: TimeMark? = null
+        }
+
+        /** In least recently used order. Only accessed while holding the storage lock. */
+        private val _slots = LinkedHashMap<Any, BoundedSlot>()
+
+        /** Number of slots whose instance has been created. Only accessed while holding the storage lock. */
+        private var _filled = 0
+
+        override fun findSlot(arg: Any?): Slot? = _slots[arg ?: NullArg]
+
+        override fun insertSlot(arg: Any?): Slot {
+            val key = arg ?: NullArg
+            return BoundedSlot(key).also { _slots[key] = it }
+        }
+
+        override fun slots(): List<Slot> = _slots.values.toList()
+
+        private fun touch(slot: BoundedSlot) {
+            // Re-inserting moves the slot at the end of the least recently used order.
+            _slots.remove(slot.key)
+            _slots[slot.key] = slot
+            ++slot.uses
+            if (eviction.policy == MultitonEviction.Policy.TimeToIdle) slot.lastAccess = eviction.timeSource.markNow()
+        }
+
+        private fun evicted(slot: BoundedSlot, evicted: MutableList<BoundedSlot>?): MutableList<BoundedSlot> {
+            slot.removed = true
+            eviction.recordEviction()
+            return (evicted ?: ArrayList(1)).also { it += slot }
+        }
+
+        /**
+         * Evicts instances that have been idle for too long, and makes room for a new instance if [full].
+         * Slots whose instance is being created are never evicted.
+         *
+         * @return The evicted slots, which need to be disposed once the storage lock is released.
+         */
+        private fun evict(full: Boolean): List<BoundedSlot>? {
+            var evicted: MutableList<BoundedSlot>? = null
+            if (eviction.policy == MultitonEviction.Policy.TimeToIdle) {
+                val iterator = _slots.values.iterator()
+                while (iterator.hasNext()) {
+                    val slot = iterator.next()
+                    if (slot.value == null) continue
+                    if (slot.lastAccess!!.elapsedNow() < eviction.timeToIdle) break
+                    iterator.remove()
+                    --_filled
+                    evicted = evicted(slot, evicted)
+                }
+            }
+            if (full && _filled >= eviction.maxSize) {
+                var victim: BoundedSlot? = null
+                for (slot in _slots.values) {
+                    if (slot.value == null) continue
+                    if (eviction.policy != MultitonEviction.Policy.LeastFrequentlyUsed) {
+                        victim = slot
+                        break
+                    }
+                    if (victim == null || slot.uses < victim.uses) victim = slot
+                }
+                if (victim != null) {
+                    _slots.remove(victim.key)
+                    --_filled
+                    evicted = evicted(victim, evicted)
+                }
+            }
+            return evicted
+        }
+
+        override fun getOrNull(arg: Any?): Any? {
+            var evicted: List<BoundedSlot>? = null
+            val value = maySynchronized(lock) {
+                evicted = evict(full = false)
+                val slot = _slots[arg ?: NullArg] ?: return@maySynchronized null
+                slot.value?.also {
+                    touch(slot)
+                    eviction.recordHit()
+                }
+            }
+            evicted?.forEach { dispose(it) }
+            return value
+        }
+
+        override fun getOrCreate(arg: Any?, creator: () -> Any): Any? {
+            while (true) {
+                var evicted: List<BoundedSlot>? = null
+                val slot = maySynchronized(lock) {
+                    if (closed) return null
+                    val existing = _slots[arg ?: NullArg]
+                    evicted = evict(full = existing == null)
+                    (existing ?: insertSlot(arg) as BoundedSlot).also { touch(it) }
+                }
+                evicted?.forEach { dispose(it) }
+
+                slot.withOwnership {
+                    if (closed) return null
+                    if (!slot.removed) {
+                        slot.value?.let {
+                            eviction.recordHit()
+                            return it
+                        }
+                        eviction.recordMiss()
+                        val created = try {
+                            creator()
+                        } catch (error: Throwable) {
+                            // Waiting retrievals of the same argument see the slot removed, and insert a new one.
+                            maySynchronized(lock) {
+                                slot.removed = true
+                                if (_slots[slot.key] === slot) _slots.remove(slot.key)
+                            }
+                            throw error
+                        }
+                        // A slot whose instance is being created is never evicted, so it is still in the storage.
+                        maySynchronized(lock) {
+                            slot.value = created
+                            ++_filled
+                        }
+                        return created
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Arguments stored in an open-addressed hash table (with linear probing).
+     *
+     * Slots are never removed, so readers can probe the table without locking:
+     * a slot, once visible, is immutable, and a table that is replaced when growing still contains every slot it had.
+     */
+    private abstract class OpenAddressed<in A> : MultitonStorage<A>() {
+        @Volatile
+        protected var table: Array<Slot?> = arrayOfNulls(INITIAL_CAPACITY)
+            private set
+
+        private var _size = 0
+
+        protected abstract fun hashOf(slot: Slot): Int
+
+        protected fun insert(slot: Slot): Slot {
+            if ((_size + 1) * 2 > table.size) {
+                val grown = arrayOfNulls<Slot>(table.size * 2)
+                table.forEach { if (it != null) put(grown, it) }
+                put(grown, slot)
+                table = grown
+            } else {
+                put(table, slot)
+            }
+            ++_size
+            return slot
+        }
+
+        private fun put(table: Array<Slot?>, slot: Slot) {
+            val mask = table.size - 1
+            var index = hashOf(slot) and mask
+            while (table[index] != null) index = (index + 1) and mask
+            table[index] = slot
+        }
+
+        override fun slots(): List<Slot> = table.filterNotNull()
+    }
+
+    /**
+     * `Int` arguments, compared without boxing.
+     */
+    private class IntKeys : OpenAddressed<Int>() {
+        private class IntSlot(val key: Int) : Slot()
+
+        override fun hashOf(slot: Slot): Int = spread((slot as IntSlot).key)
+
+        override fun findSlot(arg: Int): Slot? {
+            val table = table
+            val mask = table.size - 1
+            var index = spread(arg) and mask
+            while (true) {
+                val slot = table[index] as IntSlot? ?: return null
+                if (slot.key == arg) return slot
+                index = (index + 1) and mask
+            }
+        }
+
+        override fun insertSlot(arg: Int): Slot = insert(IntSlot(arg))
+    }
+
+    /**
+     * `Long` arguments, compared without boxing.
+     */
+    private class LongKeys : OpenAddressed<Long>() {
+        private class LongSlot(val key: Long) : Slot()
+
+        override fun hashOf(slot: Slot): Int = spread((slot as LongSlot).key.let { (it xor (it ushr 32)).toInt() })
+
+        override fun findSlot(arg: Long): Slot? {
+            val table = table
+            val mask = table.size - 1
+            var index = spread((arg xor (arg ushr 32)).toInt()) and mask
+            while (true) {
+                val slot = table[index] as LongSlot? ?: return null
+                if (slot.key == arg) return slot
+                index = (index + 1) and mask
+            }
+        }
+
+        override fun insertSlot(arg: Long): Slot = insert(LongSlot(arg))
+    }
+
+    /**
+     * Arguments compared by identity.
+     */
+    private class IdentityKeys : OpenAddressed<Any?>() {
+        private class IdentitySlot(val key: Any?) : Slot()
+
+        override fun hashOf(slot: Slot): Int = spread(identityHashCode((slot as IdentitySlot).key))
+
+        override fun findSlot(arg: Any?): Slot? {
+            val table = table
+            val mask = table.size - 1
+            var index = spread(identityHashCode(arg)) and mask
+            while (true) {
+                val slot = table[index] as IdentitySlot? ?: return null
+                if (slot.key === arg) return slot
+                index = (index + 1) and mask
+            }
+        }
+
+        override fun insertSlot(arg: Any?): Slot = insert(IdentitySlot(arg))
+    }
+
+    companion object {
+        private const val INITIAL_CAPACITY = 16
+
+        private val intTypes = setOf<TypeToken<*>>(generic<Int>(), erased<Int>())
+        private val longTypes = setOf<TypeToken<*>>(generic<Long>(), erased<Long>())
+
+        private fun spread(hash: Int): Int = (hash * -0x61c88647).let { it xor (it ushr 16) }
+
+        /**
+         * @param argType The argument type of the multiton, used to select a storage that does not box primitive arguments.
+         * @param identity Whether arguments are compared by identity instead of equality.
+         * @param eviction How instances are evicted, if they are bounded.
+         */
+        @Suppress("UNCHECKED_CAST")
+        fun <A> create(argType: TypeToken<*>, identity: Boolean, eviction: MultitonEviction?): MultitonStorage<A> = when {
+            eviction != null -> Bounded(eviction)
+            identity -> IdentityKeys()
+            argType in intTypes -> IntKeys()
+            argType in longTypes -> LongKeys()
+            else -> Equality()
+        } as MultitonStorage<A>
+    }
+}
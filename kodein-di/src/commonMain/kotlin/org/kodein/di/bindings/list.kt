@@ -0,0 +1,61 @@
+package org.kodein.di.bindings
+
+import org.kodein.di.DI
+import org.kodein.type.TypeToken
+
+/**
+ * Binding that holds multiple provider bindings (e.g. without argument) in a list, sorted by their order.
+ * Bindings with the same order are kept in the order they were added.
+ *
+ * The retrieved list is a lazy view: an element instance is only created when it is accessed (with `get` or while iterating),
+ * and the factory of an element is only resolved the first time it is accessed.
+ * Accessing an element that is not a singleton (e.g. a provider) creates a new instance each time.
+ *
+ * @param C The context type of all bindings in the list.
+ * @param T The provided type of all bindings in the list.
+ */
+public class ListBinding<C : Any, T : Any>(
+    override val contextType: TypeToken<in C>,
+    private val _elementType: TypeToken<out T>,
+    override val createdType: TypeToken<out List<T>>
+) : NoArgDIBinding<C, List<T>> {
+
+    /**
+     * An element binding, and its order in the list.
+     */
+    internal class Element<C : Any, T : Any>(val order: Int, val binding: DIBinding<C, Unit, T>)
+
+    internal val elements = ArrayList<Element<C, T>>()
+
+    /** The element bindings, sorted once the container is built (no element can be added after that). */
+    internal val sorted: List<DIBinding<C, Unit, T>> by lazy { elements.sortedBy { it.order }.map { it.binding } }
+
+    override fun factoryName(): String = "bindingList"
+
+    override fun getFactory(key: DI.Key<C, Unit, List<T>>, di: BindingDI<C>): (Unit) -> List<T> {
+        val view = LazyList(sorted, DI.Key(key.contextType, TypeToken.Unit, _elementType, key.tag), SetBindingDI(di))
+        return { view }
+    }
+
+    override val copier: DIBinding.Copier<C, Unit, List<T>> = DIBinding.Copier { builder ->
+        ListBinding(contextType, _elementType, createdType).also {
+            elements.mapTo(it.elements) { element -> Element(element.order, element.binding.copier?.copy(builder) ?: element.binding) }
+        }
+    }
+}
+
+private class LazyList<C : Any, T : Any>(
+    private val bindings: List<DIBinding<C, Unit, T>>,
+    private val subKey: DI.Key<C, Unit, T>,
+    private val subDI: BindingDI<C>
+) : AbstractList<T>() {
+
+    private val _factories = arrayOfNulls<(Unit) -> T>(bindings.size)
+
+    override val size: Int get() = bindings.size
+
+    override fun get(index: Int): T {
+        val factory = _factories[index] ?: bindings[index].getFactory(subKey, subDI).also { _factories[index] = it }
+        return factory.invoke(Unit)
+    }
+}
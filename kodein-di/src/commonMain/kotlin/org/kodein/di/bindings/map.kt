@@ -0,0 +1,85 @@
+package org.kodein.di.bindings
+
+import org.kodein.di.DI
+import org.kodein.di.internal.newConcurrentMap
+import org.kodein.type.TypeToken
+
+/**
+ * Binding that holds multiple provider bindings (e.g. without argument) in a map, indexed by their keys.
+ *
+ * The retrieved map is a lazy view: an element instance is only created when its value is accessed (with `get` or while iterating over its entries or values),
+ * and the factory of an element is only resolved the first time its value is accessed.
+ * Accessing the value of an element that is not a singleton (e.g. a provider) creates a new instance each time.
+ *
+ * @param C The context type of all bindings in the map.
+ * @param K The type of the keys of the map.
+ * @param V The provided type of all bindings in the map.
+ */
+public class MapBinding<C : Any, K : Any, V : Any>(
+    override val contextType: TypeToken<in C>,
+    private val _keyType: TypeToken<out K>,
+    private val _valueType: TypeToken<out V>,
+    override val createdType: TypeToken<out Map<K, V>>
+) : NoArgDIBinding<C, Map<K, V>> {
+
+    /**
+     * The element bindings, indexed by their keys.
+     */
+    internal val map = LinkedHashMap<K, DIBinding<C, Unit, V>>()
+
+    override fun factoryName(): String = "bindingMap"
+
+    override fun getFactory(key: DI.Key<C, Unit, Map<K, V>>, di: BindingDI<C>): (Unit) -> Map<K, V> {
+        val view = LazyMap(map, DI.Key(key.contextType, TypeToken.Unit, _valueType, key.tag), SetBindingDI(di))
+        return { view }
+    }
+
+    override val copier: DIBinding.Copier<C, Unit, Map<K, V>> = DIBinding.Copier { builder ->
+        MapBinding(contextType, _keyType, _valueType, createdType).also {
+            map.forEach { (k, binding) -> it.map[k] = binding.copier?.copy(builder) ?: binding }
+        }
+    }
+}
+
+private class LazyMap<C : Any, K : Any, V : Any>(
+    private val bindings: Map<K, DIBinding<C, Unit, V>>,
+    private val subKey: DI.Key<C, Unit, V>,
+    private val subDI: BindingDI<C>
+) : AbstractMap<K, V>() {
+
+    private val _factories = newConcurrentMap<K, (Unit) -> V>()
+
+    private fun factoryOf(key: K): ((Unit) -> V)? =
+        _factories[key] ?: bindings[key]?.getFactory(subKey, subDI)?.also { _factories[key] = it }
+
+    override val size: Int get() = bindings.size
+
+    override fun isEmpty(): Boolean = bindings.isEmpty()
+
+    override fun containsKey(key: K): Boolean = bindings.containsKey(key)
+
+    override fun get(key: K): V? = factoryOf(key)?.invoke(Unit)
+
+    override val keys: Set<K> get() = bindings.keys
+
+    override val entries: Set<Map.Entry<K, V>> = object : AbstractSet<Map.Entry<K, V>>() {
+        override val size: Int get() = bindings.size
+
+        override fun iterator(): Iterator<Map.Entry<K, V>> = object : Iterator<Map.Entry<K, V>> {
+            private val keys = bindings.keys.iterator()
+
+            override fun hasNext(): Boolean = keys.hasNext()
+
+            override fun next(): Map.Entry<K, V> {
+                val key = keys.next()
+                return Entry(key, factoryOf(key)!!.invoke(Unit))
+            }
+        }
+    }
+
+    private class Entry<K, V>(override val key: K, override val value: V) : Map.Entry<K, V> {
+        override fun equals(other: Any?): Boolean = other is Map.Entry<*, *> && other.key == key && other.value == value
+        override fun hashCode(): Int = key.hashCode() xor value.hashCode()
+        override fun toString(): String = "$key=$value"
+    }
+}
@@ -1,5 +1,8 @@
 package org.kodein.di.bindings
 
+import kotlin.time.Duration
+import kotlin.time.TimeSource
+
 /**
  * A reference gives a data and a function to later check the validity and retrieve that data.
  *
@@ -35,3 +38,30 @@ public object SingletonReference : RefMaker {
         return Reference(value) { value }
     }
 }
+
+/**
+ * Expiring Reference Maker.
+ *
+ * Use this with `singleton(ref = ...)` or `multiton(ref = ...)` to bind a singleton or multiton whose instance is re-created once [ttl] has elapsed since its creation.
+ * The instance is re-created by the first retrieval after it has expired, which holds the singleton lock while re-creating it.
+ * An expired instance is not closed, as it may still be in use.
+ *
+ * @param ttl How long an instance is valid after its creation.
+ * @param timeSource The time source used to measure the instances age.
+ * @return A reference maker that expires instances.
+ */
+public fun expireAfter(ttl: Duration, timeSource: TimeSource = TimeSource.Monotonic): RefMaker = ExpiringReference(ttl, timeSource)
+
+private class ExpiringReference(private val ttl: Duration, private val timeSource: TimeSource) : RefMaker {
+    init {
+        require(ttl.isPositive()) { "ttl must be positive" }
+    }
+
+    override fun <T : Any> make(creator: () -> T): Reference<T> {
+        val value = creator()
+        val expiration = timeSource.markNow() + ttl
+        return Reference(value) { if (expiration.hasPassedNow()) null else value }
+    }
+
+    override fun toString(): String = "expireAfter($ttl)"
+}
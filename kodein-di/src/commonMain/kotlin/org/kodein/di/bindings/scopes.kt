@@ -1,13 +1,18 @@
 package org.kodein.di.bindings
 
 import kotlinx.atomicfu.locks.SynchronizedObject
+import kotlinx.atomicfu.locks.reentrantLock
 import org.kodein.di.DIContext
 import org.kodein.di.DirectDI
+import org.kodein.di.internal.OwnedLock
+import org.kodein.di.internal.lockedIfNotNull
+import org.kodein.di.internal.lockedIfNull
+import org.kodein.di.internal.mayLock
 import org.kodein.di.internal.maySynchronized
 import org.kodein.di.internal.newConcurrentMap
-import org.kodein.di.internal.synchronizedIfNotNull
-import org.kodein.di.internal.synchronizedIfNull
+import org.kodein.di.internal.withOwnership
 import org.kodein.type.TypeToken
+import kotlin.concurrent.Volatile
 
 @Deprecated(
     message = "Use kotlin AutoCloseable instead.",
@@ -52,57 +57,120 @@ public sealed class ScopeRegistry : ScopeCloseable {
 
 /**
  * Standard [ScopeRegistry] implementation.
+ *
+ * Each key has its own lock, so that values of different keys can be created concurrently,
+ * while guaranteeing that a value is created only once per key.
+ * Retrieving a value that has already been created does not lock.
  */
 public class StandardScopeRegistry : ScopeRegistry() {
 
-    private val _cache = newConcurrentMap<RegKey, () -> Any?>()
+    /**
+     * The slot of a key in the registry, which is also the lock that guards the creation of its value.
+     *
+     * @property next The function that gives the value, once it has been created.
+     * @property removed Whether this entry has been removed from the registry, in which case it must not be used anymore.
+     */
+    private class Entry : OwnedLock() {
+        @Volatile var next: (() -> Any?)? = null
+        @Volatile var removed: Boolean = false
+        var onRemove: (() -> Unit)? = null
+    }
+
+    private val _entries = newConcurrentMap<RegKey, Entry>()
 
     private val _lock = SynchronizedObject()
 
+    private fun entryFor(key: RegKey): Entry =
+        _entries[key] ?: maySynchronized(_lock) { _entries.getOrPut(key) { Entry() } }
+
     override fun getOrCreate(key: RegKey, sync: Boolean, creator: () -> Reference<Any>): Any {
-        return synchronizedIfNull(
-                lock = if (sync) _lock else null,
-                predicate = { _cache[key]?.invoke() },
-                ifNotNull = { it },
-                ifNull = {
+        _entries[key]?.next?.invoke()?.let { return it }
+
+        if (!sync) {
+            val (current, next) = creator()
+            entryFor(key).next = next
+            return current
+        }
+
+        while (true) {
+            val entry = entryFor(key)
+            entry.withOwnership {
+                if (!entry.removed) {
+                    entry.next?.invoke()?.let { return it }
                     val (current, next) = creator()
-                    _cache[key] = next
-                    current
+                    entry.next = next
+                    return current
                 }
-        )
+            }
+        }
+    }
+
+    /**
+     * Same as a synchronized [getOrCreate], but also gives the value to [publish] and registers [invalidate] to be called once the value is removed from this registry.
+     *
+     * Both [publish] and [invalidate] are called while holding the key lock, so a value is never published after it has been invalidated.
+     */
+    internal fun getOrCreatePublished(key: RegKey, publish: (Any) -> Unit, invalidate: () -> Unit, creator: () -> Reference<Any>): Any {
+        while (true) {
+            val entry = entryFor(key)
+            entry.withOwnership {
+                if (!entry.removed) {
+                    val value = entry.next?.invoke() ?: creator().let { (current, next) ->
+                        entry.next = next
+                        current
+                    }
+                    entry.onRemove = invalidate
+                    publish(value)
+                    return value
+                }
+            }
+        }
     }
 
-    override fun getOrNull(key: RegKey): (() -> Any?)? = _cache[key]
+    override fun getOrNull(key: RegKey): (() -> Any?)? = _entries[key]?.next
 
-    override fun values(): List<Pair<RegKey, () -> Any?>> = _cache.map { it.toPair() }
+    override fun values(): List<Pair<RegKey, () -> Any?>> = _entries.mapNotNull { (key, entry) -> entry.next?.let { key to it } }
+
+    /**
+     * Removes the entry from the registry, waiting for its value to be created if it is being created.
+     *
+     * @return The function that gives the value of the entry, if it was created.
+     */
+    private fun close(entry: Entry): (() -> Any?)? = mayLock(entry.lock) {
+        entry.removed = true
+        entry.onRemove?.invoke()
+        entry.onRemove = null
+        entry.next.also { entry.next = null }
+    }
 
     override fun remove(key: RegKey) {
-        (_cache.remove(key)?.invoke() as? AutoCloseable)?.close()
+        val entry = maySynchronized(_lock) { _entries.remove(key) } ?: return
+        (close(entry)?.invoke() as? AutoCloseable)?.close()
     }
 
     /**
      * Remove all objects from the scope.
      */
     override fun clear() {
-        val refs = maySynchronized(_lock) {
-            val refs = _cache.values.toList()
-            _cache.clear()
-            refs
+        val entries = maySynchronized(_lock) {
+            val entries = _entries.values.toList()
+            _entries.clear()
+            entries
         }
-        refs.forEach {
-            (it.invoke() as? AutoCloseable)?.close()
+        entries.forEach {
+            (close(it)?.invoke() as? AutoCloseable)?.close()
         }
     }
 
     /**
      * The number of singleton objects currently created in this scope.
      */
-    public val size: Int get() = _cache.size
+    public val size: Int get() = _entries.values.count { it.next != null }
 
     /**
      * @return Whether or not this scope is empty (contains no singleton objects).
      */
-    public fun isEmpty(): Boolean = _cache.isEmpty()
+    public fun isEmpty(): Boolean = _entries.values.none { it.next != null }
 }
 
 /**
@@ -111,13 +179,13 @@ public class StandardScopeRegistry : ScopeRegistry() {
  * If the key changes, the held item will be replaced.
  */
 public class SingleItemScopeRegistry : ScopeRegistry() {
-    private val _lock = SynchronizedObject()
+    private val _lock = reentrantLock()
 
     @kotlin.concurrent.Volatile
     private var _pair: Pair<RegKey, () -> Any?>? = null
 
     override fun getOrCreate(key: RegKey, sync: Boolean, creator: () -> Reference<Any>): Any {
-        val (oldRef, value) = synchronizedIfNull(
+        val (oldRef, value) = lockedIfNull(
                 lock = if (sync) _lock else null,
                 predicate = { _pair?.let { (pKey, pRef) -> if (key == pKey) pRef() else null } },
                 ifNotNull = { null to it },
@@ -142,7 +210,7 @@ public class SingleItemScopeRegistry : ScopeRegistry() {
     override fun values(): List<Pair<RegKey, () -> Any?>> = _pair?.let { listOf(it) } ?: emptyList()
 
     override fun remove(key: RegKey) {
-        val ref = synchronizedIfNotNull(
+        val ref = lockedIfNotNull(
                 lock = _lock,
                 predicate = { _pair },
                 ifNull = { null },
@@ -161,7 +229,7 @@ public class SingleItemScopeRegistry : ScopeRegistry() {
      * Remove the item & reset the scope.
      */
     override fun clear() {
-        val ref = synchronizedIfNotNull(
+        val ref = lockedIfNotNull(
                 lock = _lock,
                 predicate = { _pair },
                 ifNull = { null },
@@ -230,6 +298,11 @@ public open class UnboundedScope(public val registry: ScopeRegistry = StandardSc
     override fun close(): Unit = registry.clear()
 }
 
+/**
+ * Whether this scope always gives the same registry, whatever the context.
+ */
+internal val Scope<*>.isContextIndependent: Boolean get() = this is NoScope || this::class == UnboundedScope::class
+
 public abstract class SubScope<C, PC>(private val parentScope: Scope<PC>) : Scope<C> {
 
     private data class Key<C>(val context: C)
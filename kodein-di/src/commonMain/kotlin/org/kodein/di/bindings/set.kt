@@ -3,6 +3,7 @@ package org.kodein.di.bindings
 import org.kodein.di.*
 import org.kodein.di.internal.DIBuilderImpl
 import org.kodein.type.TypeToken
+import kotlin.concurrent.Volatile
 
 /**
  * Base class for binding set.
@@ -17,11 +18,116 @@ public abstract class BaseMultiBinding<C : Any, A, T : Any> : DIBinding<C, A, Se
     override fun factoryName(): String = "bindingSet"
 }
 
-private class SetBindingDI<out C : Any>(private val _base: BindingDI<C>) : BindingDI<C> by _base {
+internal class SetBindingDI<out C : Any>(private val _base: BindingDI<C>) : BindingDI<C> by _base {
     override fun overriddenFactory() = throw IllegalStateException("Cannot access overrides in a Set binding")
     override fun overriddenFactoryOrNull() = throw IllegalStateException("Cannot access overrides in a Set binding")
 }
 
+/**
+ * Immutable set backed by an array of distinct elements, in insertion order.
+ * Small sets are scanned linearly, larger ones are indexed by an open addressing hash table of positions in the array.
+ */
+private class ArraySet<T> private constructor(private val elements: Array<Any?>, private val index: IntArray?) : AbstractSet<T>() {
+    override val size: Int get() = elements.size
+
+    override fun contains(element: T): Boolean =
+        if (index == null) elements.contains(element)
+        else index[slot(index, elements, element)] != 0
+
+    @Suppress("UNCHECKED_CAST")
+    override fun iterator(): Iterator<T> = (elements as Array<T>).iterator()
+
+    companion object {
+        private const val MAX_SCAN_SIZE = 16
+
+        fun <T> of(values: Array<Any?>): ArraySet<T> {
+            if (values.size <= MAX_SCAN_SIZE) {
+                for (index in values.indices) {
+                    for (previous in 0 until index) {
+                        if (values[previous] == values[index]) return ArraySet(values.distinct().toTypedArray(), null)
+                    }
+                }
+                return ArraySet(values, null)
+            }
+
+            var tableSize = 2
+            while (tableSize < values.size * 2) tableSize = tableSize shl 1
+            val table = IntArray(tableSize)
+            val distinct = arrayOfNulls<Any?>(values.size)
+            var count = 0
+            for (value in values) {
+                val slot = slot(table, distinct, value)
+                if (table[slot] == 0) {
+                    distinct[count++] = value
+                    table[slot] = count
+                }
+            }
+            return ArraySet(if (count == values.size) distinct else distinct.copyOf(count), table)
+        }
+
+        /**
+         * @return The slot of [table] that holds the (1-based) position of [value] in [elements], or the empty slot where it should be inserted.
+         */
+        private fun slot(table: IntArray, elements: Array<Any?>, value: Any?): Int {
+            val mask = table.size - 1
+            val hash = value.hashCode()
+            var slot = (hash xor (hash ushr 16)) and mask
+            while (true) {
+                val position = table[slot]
+                if (position == 0 || elements[position - 1] == value) return slot
+                slot = (slot + 1) and mask
+            }
+        }
+    }
+}
+
+/**
+ * Creates the sets of a set binding from the factories of its elements, which are resolved once.
+ *
+ * If [reusable], the elements are expected to be the same instances at each retrieval (e.g. singletons),
+ * in which case the previously created set is returned as long as all its elements are still the same instances.
+ */
+private class SetMaterializer<A, T>(private val factories: List<(A) -> T>, private val reusable: Boolean) {
+
+    /**
+     * A created set, and the values returned by each factory to create it.
+     */
+    private class Snapshot<T>(val values: Array<Any?>, val set: Set<T>)
+
+    @Volatile
+    private var _last: Snapshot<T>? = null
+
+    fun get(arg: A): Set<T> {
+        if (!reusable) return toSet(Array(factories.size) { factories[it].invoke(arg) })
+
+        val last = _last
+        var values: Array<Any?>? = null
+        for (index in factories.indices) {
+            val value = factories[index].invoke(arg)
+            if (values == null) {
+                if (last != null && last.values[index] === value) continue
+                values = arrayOfNulls(factories.size)
+                last?.values?.copyInto(values, endIndex = index)
+            }
+            values[index] = value
+        }
+        if (last != null && values == null) return last.set
+
+        val snapshotValues = values ?: arrayOfNulls(0)
+        return toSet(snapshotValues).also { _last = Snapshot(snapshotValues, it) }
+    }
+
+    private fun toSet(values: Array<Any?>): Set<T> = ArraySet.of(values)
+
+    companion object {
+        /**
+         * Whether the elements of these bindings are the same instance for each retrieval in a given context, unless their scope registry is cleared.
+         */
+        fun isReusable(bindings: Collection<DIBinding<*, *, *>>) =
+            bindings.all { it is InstanceBinding<*> || it is Singleton<*, *> || it is EagerSingleton<*> || it is Multiton<*, *, *> }
+    }
+}
+
 
 /**
  * Binding that holds multiple factory bindings (e.g. with argument) in a set.
@@ -40,13 +146,14 @@ public class ArgSetBinding<C : Any, A, T : Any>(
     override val set = LinkedHashSet<DIBinding<C, A, T>>()
 
     override fun getFactory(key: DI.Key<C, A, Set<T>>, di: BindingDI<C>): (A) -> Set<T> {
-        var lateInitFactories: List<(A) -> T>? = null
+        var lateInitMaterializer: SetMaterializer<A, T>? = null
         return { arg ->
-            val factories = lateInitFactories ?: run {
+            val materializer = lateInitMaterializer ?: run {
                 val subKey = DI.Key(key.contextType, key.argType, _elementType, key.tag)
-                set.map { it.getFactory(subKey, SetBindingDI(di)) }
-            }.also { lateInitFactories = it }
-            factories.asSequence().map { it.invoke(arg) }.toSet()
+                val subDI = SetBindingDI(di)
+                SetMaterializer(set.map { it.getFactory(subKey, subDI) }, SetMaterializer.isReusable(set))
+            }.also { lateInitMaterializer = it }
+            materializer.get(arg)
         }
     }
 
@@ -72,14 +179,14 @@ public class SetBinding<C : Any, T : Any>(
     override val set = LinkedHashSet<DIBinding<C, Unit, T>>()
 
     override fun getFactory(key: DI.Key<C, Unit, Set<T>>, di: BindingDI<C>): (Unit) -> Set<T> {
-        var lateInitProviders: List<(Unit) -> T>? = null
+        var lateInitMaterializer: SetMaterializer<Unit, T>? = null
         return { _ ->
-            val providers = lateInitProviders ?: run {
+            val materializer = lateInitMaterializer ?: run {
                 val subKey = DI.Key(key.contextType, TypeToken.Unit, _elementType, key.tag)
                 val subDI = SetBindingDI(di)
-                set.map { it.getFactory(subKey, subDI) }
-            }.also { lateInitProviders = it }
-            providers.asSequence().map { it.invoke(Unit) }.toSet()
+                SetMaterializer(set.map { it.getFactory(subKey, subDI) }, SetMaterializer.isReusable(set))
+            }.also { lateInitMaterializer = it }
+            materializer.get(Unit)
         }
     }
 
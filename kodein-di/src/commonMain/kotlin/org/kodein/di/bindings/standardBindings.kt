@@ -1,9 +1,10 @@
 package org.kodein.di.bindings
 
-import kotlinx.atomicfu.locks.SynchronizedObject
 import org.kodein.di.*
 import org.kodein.di.internal.BindingDIImpl
-import org.kodein.di.internal.synchronizedIfNull
+import org.kodein.di.internal.OwnedLock
+import org.kodein.di.internal.identityHashCode
+import org.kodein.di.internal.withOwnership
 import org.kodein.type.TypeToken
 import org.kodein.type.erasedOf
 import kotlin.concurrent.Volatile
@@ -31,6 +32,12 @@ public class Factory<C : Any, A, T : Any>(
 
 private data class ScopeKey<out A>(val scopeId: Any, val arg: A)
 
+/** Wraps a multiton argument so that it is compared by identity. */
+private class IdentityArg(val arg: Any?) {
+    override fun equals(other: Any?) = other is IdentityArg && other.arg === arg
+    override fun hashCode() = identityHashCode(arg)
+}
+
 /**
  * Concrete multiton: will create one and only one instance for each argument.
  * Will create the instance on first time a given argument is used and will subsequently always return the same instance for the same argument.
@@ -38,22 +45,56 @@ private data class ScopeKey<out A>(val scopeId: Any, val arg: A)
  * @param T The created type.
  * @property argType The type of the argument used for each value can there be a new instance.
  * @property createdType The type of the created object, *used for debug print only*.
+ * @property identity Whether arguments are compared by identity (`===`) instead of equality.
+ * @property eviction If not null, bounds the number of instances this multiton keeps (in each scope registry).
  * @property creator The function that will be called the first time an instance is requested. Guaranteed to be called only once per argument. Should create a new instance.
  */
 public class Multiton<C : Any, A, T : Any>(
     override val scope: Scope<C>,
     override val contextType: TypeToken<in C>,
-    private val explicitContext: Boolean,
+    internal val explicitContext: Boolean,
     override val argType: TypeToken<in A>,
     override val createdType: TypeToken<out T>,
     refMaker: RefMaker? = null,
     public val sync: Boolean = true,
+    public val identity: Boolean = false,
+    public val eviction: MultitonEviction? = null,
     private val creator: BindingDI<C>.(A) -> T
 ) : DIBinding<C, A, T> {
     private val _refMaker = refMaker ?: SingletonReference
 
+    init {
+        require(eviction == null || _refMaker === SingletonReference) { "A multiton with an eviction cannot use a reference maker" }
+    }
+
+    /** The constructor of the versions that had no [identity] nor [eviction] parameter, kept for binary compatibility. */
+    @Deprecated("Kept for binary compatibility.", level = DeprecationLevel.HIDDEN)
+    public constructor(
+        scope: Scope<C>,
+        contextType: TypeToken<in C>,
+        explicitContext: Boolean,
+        argType: TypeToken<in A>,
+        createdType: TypeToken<out T>,
+        refMaker: RefMaker? = null,
+        sync: Boolean = true,
+        creator: BindingDI<C>.(A) -> T
+    ) : this(scope, contextType, explicitContext, argType, createdType, refMaker, sync, false, null, creator)
+
     private val _scopeId = Any()
 
+    /**
+     * Synchronized multitons with a strong reference keep all their instances in a single [MultitonStorage] of a [StandardScopeRegistry],
+     * which avoids allocating a registry key (and boxing primitive arguments) for each retrieval.
+     * Multitons with an eviction always use a storage, which is always synchronized.
+     */
+    private val _storable = eviction != null || (sync && _refMaker === SingletonReference)
+
+    /**
+     * The storage, published once it has been created in a context independent registry. Reset once the storage is removed from the registry.
+     */
+    @Volatile
+    private var _publishedStorage: MultitonStorage<A>? = null
+
     private fun factoryName(params: List<String>) = buildString {
         append("multiton")
         if (params.isNotEmpty())
@@ -64,6 +105,8 @@ public class Multiton<C : Any, A, T : Any>(
         val params = ArrayList<String>(2)
         if (_refMaker != SingletonReference)
             params.add("ref = ${erasedOf(_refMaker).simpleDispString()}")
+        if (eviction != null)
+            params.add("eviction = $eviction")
         return factoryName(params)
     }
 
@@ -71,17 +114,48 @@ public class Multiton<C : Any, A, T : Any>(
         val params = ArrayList<String>(2)
         if (_refMaker != SingletonReference)
             params.add("ref = ${erasedOf(_refMaker).qualifiedDispString()}")
+        if (eviction != null)
+            params.add("eviction = $eviction")
         return factoryName(params)
     }
 
+    private val _newStorage: () -> Reference<Any> = { SingletonReference.make { MultitonStorage.create<A>(argType, identity, eviction) } }
+
+    @Suppress("UNCHECKED_CAST")
+    private inline fun getOrCreate(storage: () -> MultitonStorage<A>, arg: A, bindingDi: BindingDI<C>): T {
+        while (true) {
+            val current = storage()
+            current.getOrNull(arg)?.let { return it as T }
+            // A null result means that the storage has been closed while creating: retry with the new storage.
+            current.getOrCreate(arg) { bindingDi.creator(arg) }?.let { return it as T }
+        }
+    }
+
+    @Suppress("UNCHECKED_CAST")
     override fun getFactory(key: DI.Key<C, A, T>, di: BindingDI<C>): (A) -> T {
         var lateInitRegistry: ScopeRegistry? = null
         val bindingDi = if (explicitContext) di else di.onErasedContext()
+
+        if (_storable && scope.isContextIndependent) {
+            val registry = scope.getRegistry(bindingDi.context)
+            if (registry is StandardScopeRegistry) {
+                val publish: (Any) -> Unit = { _publishedStorage = it as MultitonStorage<A> }
+                val invalidate: () -> Unit = { _publishedStorage = null }
+                return { arg ->
+                    getOrCreate({ _publishedStorage ?: registry.getOrCreatePublished(_scopeId, publish, invalidate, _newStorage) as MultitonStorage<A> }, arg, bindingDi)
+                }
+            }
+        }
+
         return { arg ->
             val registry = lateInitRegistry
                 ?: scope.getRegistry(bindingDi.context).also { lateInitRegistry = it }
-            @Suppress("UNCHECKED_CAST")
-            registry.getOrCreate(ScopeKey(_scopeId, arg), sync) { _refMaker.make { bindingDi.creator(arg) } } as T
+            if (_storable && registry is StandardScopeRegistry) {
+                getOrCreate({ registry.getOrCreate(_scopeId, true, _newStorage) as MultitonStorage<A> }, arg, bindingDi)
+            } else {
+                val scopeArg = if (identity) IdentityArg(arg) else arg
+                registry.getOrCreate(ScopeKey(_scopeId, scopeArg), sync) { _refMaker.make { bindingDi.creator(arg) } } as T
+            }
         }
     }
 
@@ -95,6 +169,8 @@ public class Multiton<C : Any, A, T : Any>(
                 createdType = createdType,
                 refMaker = _refMaker,
                 sync = sync,
+                identity = identity,
+                eviction = eviction,
                 creator = creator
             )
         }
@@ -134,7 +210,7 @@ public class Provider<C : Any, T : Any>(
 public class Singleton<C : Any, T : Any>(
     override val scope: Scope<C>,
     override val contextType: TypeToken<in C>,
-    private val explicitContext: Boolean,
+    internal val explicitContext: Boolean,
     override val createdType: TypeToken<out T>,
     refMaker: RefMaker? = null,
     public val sync: Boolean = true,
@@ -144,6 +220,16 @@ public class Singleton<C : Any, T : Any>(
     private val _refMaker = refMaker ?: SingletonReference
     private val _scopeKey = ScopeKey(Any(), Unit)
 
+    /**
+     * The created instance, published once it has been created in a context independent [StandardScopeRegistry],
+     * so that subsequent retrievals do not need to go through the registry.
+     * Reset once the instance is removed from the registry.
+     */
+    @Volatile
+    private var _published: Any? = null
+
+    private val _publishable = sync && _refMaker === SingletonReference && scope.isContextIndependent
+
     private fun factoryName(params: List<String>) = buildString {
         append("singleton")
         if (params.isNotEmpty())
@@ -171,6 +257,19 @@ public class Singleton<C : Any, T : Any>(
         var lateInitRegistry: ScopeRegistry? = null
 
         val bindingDi = if (explicitContext) di else di.onErasedContext()
+
+        if (_publishable) {
+            val registry = scope.getRegistry(bindingDi.context)
+            if (registry is StandardScopeRegistry) {
+                val publish: (Any) -> Unit = { _published = it }
+                val invalidate: () -> Unit = { _published = null }
+                return { _ ->
+                    @Suppress("UNCHECKED_CAST")
+                    (_published ?: registry.getOrCreatePublished(_scopeKey, publish, invalidate) { _refMaker.make { NoArgBindingDIWrap(bindingDi).creator() } }) as T
+                }
+            }
+        }
+
         return { _ ->
             val registry = lateInitRegistry
                 ?: scope.getRegistry(bindingDi.context).also { lateInitRegistry = it }
@@ -200,18 +299,13 @@ public class EagerSingleton<T : Any>(
 
     @Volatile
     private var _instance: T? = null
-    private val _lock = SynchronizedObject()
+    private val _lock = OwnedLock()
 
     private fun getFactory(di: BindingDI<Any>): (Unit) -> T {
         return { _ ->
-            synchronizedIfNull(
-                lock = _lock,
-                predicate = this@EagerSingleton::_instance,
-                ifNotNull = { it },
-                ifNull = {
-                    NoArgBindingDIWrap(di).creator().also { _instance = it }
-                }
-            )
+            _instance ?: _lock.withOwnership {
+                _instance ?: NoArgBindingDIWrap(di).creator().also { _instance = it }
+            }
         }
     }
 
@@ -224,7 +318,7 @@ public class EagerSingleton<T : Any>(
 
     init {
         val key = DI.Key(TypeToken.Any, TypeToken.Unit, createdType, null)
-        builder.onReady { getFactory(BindingDIImpl(this, key, 0)).invoke(Unit) }
+        builder.onReady(independent = true) { getFactory(BindingDIImpl(this, key, 0)).invoke(Unit) }
     }
 
     override val copier: DIBinding.Copier<Any, Unit, T> =
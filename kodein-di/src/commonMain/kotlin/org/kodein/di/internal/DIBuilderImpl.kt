@@ -4,7 +4,9 @@ package org.kodein.di.internal
 
 import org.kodein.di.Copy
 import org.kodein.di.DI
+import org.kodein.di.DIContainer
 import org.kodein.di.DirectDI
+import org.kodein.di.OnReadyRunner
 import org.kodein.di.bindings.ArgSetBinding
 import org.kodein.di.bindings.BaseMultiBinding
 import org.kodein.di.bindings.BindingDI
@@ -13,6 +15,8 @@ import org.kodein.di.bindings.DIBinding
 import org.kodein.di.bindings.ExternalSource
 import org.kodein.di.bindings.Factory
 import org.kodein.di.bindings.InstanceBinding
+import org.kodein.di.bindings.ListBinding
+import org.kodein.di.bindings.MapBinding
 import org.kodein.di.bindings.Multiton
 import org.kodein.di.bindings.NoArgBindingDI
 import org.kodein.di.bindings.NoScope
@@ -207,7 +211,7 @@ internal open class DIBuilderImpl internal constructor(
         }
 
         override fun addMultiton(ref: RefMaker?, sync: Boolean, creator: BindingDI<Any>.(A) -> T) {
-            add { Multiton(scope, contextType, explicitContext, setBindingArgType, setBindingType, ref, sync, creator) }
+            add { Multiton(scope, contextType, explicitContext, setBindingArgType, setBindingType, ref, sync, creator = creator) }
         }
 
         override fun bindFactory(tag: Any?, overrides: Boolean?, creator: BindingDI<Any>.(A) -> T) {
@@ -215,7 +219,111 @@ internal open class DIBuilderImpl internal constructor(
         }
 
         override fun bindMultiton(tag: Any?, overrides: Boolean?, ref: RefMaker?, sync: Boolean, creator: BindingDI<Any>.(A) -> T) {
-            bind(tag, overrides) { Multiton(scope, contextType, explicitContext, setBindingArgType, setBindingType, ref, sync, creator) }
+            bind(tag, overrides) { Multiton(scope, contextType, explicitContext, setBindingArgType, setBindingType, ref, sync, creator = creator) }
+        }
+    }
+
+    @Suppress("unchecked_cast")
+    inner class MapBinder<K : Any, V : Any> internal constructor(
+        private val mapBindingTag: Any?,
+        private val mapBindingKeyType: TypeToken<out K>,
+        private val mapBindingType: TypeToken<out V>,
+        mapBindingOverrides: Boolean?,
+        addMapBindingToContainer: Boolean = true,
+    ) : DI.Builder.MapBinder<K, V> {
+
+        val contextType: TypeToken<Any> get() = this@DIBuilderImpl.contextType
+        val scope: Scope<Any?> get() = this@DIBuilderImpl.scope
+        val explicitContext: Boolean get() = this@DIBuilderImpl.explicitContext
+
+        private val mapType = erasedComp(Map::class, mapBindingKeyType, mapBindingType) as TypeToken<Map<K, V>>
+
+        private val mapBinding: MapBinding<*, K, V> by lazy {
+            val mapKey = DI.Key(TypeToken.Any, TypeToken.Unit, mapType, mapBindingTag)
+
+            val mapBinding = this@DIBuilderImpl.containerBuilder.bindingsMap[mapKey]?.first()
+                ?: throw IllegalStateException("No map binding to $mapKey")
+            mapBinding.binding as? MapBinding<*, K, V>
+                ?: throw IllegalStateException("$mapKey is associated to a ${mapBinding.binding.factoryName()} while it should be associated with bindingMap")
+        }
+
+        init {
+            if (addMapBindingToContainer) {
+                this@DIBuilderImpl.Bind(
+                    tag = mapBindingTag,
+                    overrides = mapBindingOverrides,
+                    binding = MapBinding(TypeToken.Any, mapBindingKeyType, mapBindingType, mapType)
+                )
+            }
+        }
+
+        override fun add(key: K, createBinding: () -> DIBinding<*, Unit, out V>) {
+            val map = mapBinding.map as MutableMap<K, DIBinding<*, *, *>>
+            if (key in map)
+                throw DI.OverridingException("Key $key is already bound in map ${mapType.simpleDispString()}")
+            map[key] = createBinding()
+        }
+
+        override fun addSingleton(key: K, ref: RefMaker?, sync: Boolean, creator: NoArgBindingDI<Any>.() -> V) {
+            add(key) { Singleton(scope, contextType, explicitContext, mapBindingType, ref, sync, creator) }
+        }
+
+        override fun addProvider(key: K, creator: NoArgBindingDI<Any>.() -> V) {
+            add(key) { Provider(contextType, mapBindingType, creator) }
+        }
+
+        override fun addInstance(key: K, instance: V) {
+            add(key) { InstanceBinding(mapBindingType, instance) }
+        }
+    }
+
+    @Suppress("unchecked_cast")
+    inner class ListBinder<T : Any> internal constructor(
+        private val listBindingTag: Any?,
+        private val listBindingType: TypeToken<out T>,
+        listBindingOverrides: Boolean?,
+        addListBindingToContainer: Boolean = true,
+    ) : DI.Builder.ListBinder<T> {
+
+        val contextType: TypeToken<Any> get() = this@DIBuilderImpl.contextType
+        val scope: Scope<Any?> get() = this@DIBuilderImpl.scope
+        val explicitContext: Boolean get() = this@DIBuilderImpl.explicitContext
+
+        private val listType = erasedComp(List::class, listBindingType) as TypeToken<List<T>>
+
+        private val listBinding: ListBinding<Any, T> by lazy {
+            val listKey = DI.Key(TypeToken.Any, TypeToken.Unit, listType, listBindingTag)
+
+            val listBinding = this@DIBuilderImpl.containerBuilder.bindingsMap[listKey]?.first()
+                ?: throw IllegalStateException("No list binding to $listKey")
+            listBinding.binding as? ListBinding<Any, T>
+                ?: throw IllegalStateException("$listKey is associated to a ${listBinding.binding.factoryName()} while it should be associated with bindingList")
+        }
+
+        init {
+            if (addListBindingToContainer) {
+                this@DIBuilderImpl.Bind(
+                    tag = listBindingTag,
+                    overrides = listBindingOverrides,
+                    binding = ListBinding(TypeToken.Any, listBindingType, listType)
+                )
+            }
+        }
+
+        override fun add(order: Int, createBinding: () -> DIBinding<*, Unit, out T>) {
+            listBinding.elements += ListBinding.Element(order, createBinding() as DIBinding<Any, Unit, T>)
+        }
+
+        override fun addSingleton(order: Int, ref: RefMaker?, sync: Boolean, creator: NoArgBindingDI<Any>.() -> T) {
+            add(order) { Singleton(scope, contextType, explicitContext, listBindingType, ref, sync, creator) }
+        }
+
+        override fun addProvider(order: Int, creator: NoArgBindingDI<Any>.() -> T) {
+            add(order) { Provider(contextType, listBindingType, creator) }
+        }
+
+        override fun addInstance(order: Int, instance: T) {
+            add(order) { InstanceBinding(listBindingType, instance) }
         }
     }
 
@@ -292,6 +400,51 @@ internal open class DIBuilderImpl internal constructor(
         )
     )
 
+    override fun <K : Any, V : Any> BindInMap(
+        tag: Any?,
+        overrides: Boolean?,
+        keyType: TypeToken<out K>,
+        type: TypeToken<out V>,
+        creator: DI.Builder.MapBinder<K, V>.() -> Unit
+    ) = creator(MapBinder(tag, keyType, type, overrides))
+
+    override fun <K : Any, V : Any> InBindMap(
+        tag: Any?,
+        overrides: Boolean?,
+        keyType: TypeToken<out K>,
+        type: TypeToken<out V>,
+        creator: DI.Builder.MapBinder<K, V>.() -> Unit
+    ) = creator(
+        MapBinder(
+            mapBindingTag = tag,
+            mapBindingKeyType = keyType,
+            mapBindingType = type,
+            mapBindingOverrides = overrides,
+            addMapBindingToContainer = false
+        )
+    )
+
+    override fun <T : Any> BindInList(
+        tag: Any?,
+        overrides: Boolean?,
+        type: TypeToken<out T>,
+        creator: DI.Builder.ListBinder<T>.() -> Unit
+    ) = creator(ListBinder(tag, type, overrides))
+
+    override fun <T : Any> InBindList(
+        tag: Any?,
+        overrides: Boolean?,
+        type: TypeToken<out T>,
+        creator: DI.Builder.ListBinder<T>.() -> Unit
+    ) = creator(
+        ListBinder(
+            listBindingTag = tag,
+            listBindingType = type,
+            listBindingOverrides = overrides,
+            addListBindingToContainer = false
+        )
+    )
+
     @Deprecated("Use inBindSet { add { BINDING } } instead.")
     @Suppress("deprecation")
     override fun <T : Any> BindSet(
@@ -359,6 +512,8 @@ internal open class DIBuilderImpl internal constructor(
 
     override fun onReady(cb: DirectDI.() -> Unit) = containerBuilder.onReady(cb)
 
+    override fun onReady(independent: Boolean, cb: DirectDI.() -> Unit) = containerBuilder.onReady(independent, cb)
+
     override fun RegisterContextTranslator(translator: ContextTranslator<*, *>) =
         containerBuilder.registerContextTranslator(translator)
 }
@@ -376,12 +531,22 @@ internal open class DIMainBuilderImpl(allowSilentOverride: Boolean) : DIBuilderI
     override var fullDescriptionOnError: Boolean = DI.defaultFullDescriptionOnError
     override var fullContainerTreeOnError: Boolean = DI.defaultFullContainerTreeOnError
     override var verifyModuleNames: Boolean = DI.defaultVerifyModuleNames
+    override var freezeTree: Boolean = DI.defaultFreezeTree
+    override var checkDependencyLoops: Boolean = DI.defaultCheckDependencyLoops
+    override var onReadyRunner: OnReadyRunner? = DI.defaultOnReadyRunner
 
     override fun extend(di: DI, allowOverride: Boolean, copy: Copy) {
-        val keys = copy.keySet(di.container.tree)
+        containerBuilder.extend(di.container, allowOverride, copy.keySet(di.container.tree))
+        imported(di.container)
+    }
 
-        containerBuilder.extend(di.container, allowOverride, keys)
-        externalSources += di.container.tree.externalSources
+    override fun extendLayered(di: DI, allowOverride: Boolean, copy: Copy) {
+        containerBuilder.extendLayered(di.container, allowOverride, copy.keySet(di.container.tree))
+        imported(di.container)
+    }
+
+    private fun imported(container: DIContainer) {
+        externalSources += container.tree.externalSources
         importedModules.addAll(
             containerBuilder.bindingsMap
                 .flatMap { it.value.map { it.fromModule } }
@@ -390,14 +555,12 @@ internal open class DIMainBuilderImpl(allowSilentOverride: Boolean) : DIBuilderI
     }
 
     override fun extend(directDI: DirectDI, allowOverride: Boolean, copy: Copy) {
-        val keys = copy.keySet(directDI.container.tree)
+        containerBuilder.extend(directDI.container, allowOverride, copy.keySet(directDI.container.tree))
+        imported(directDI.container)
+    }
 
-        containerBuilder.extend(directDI.container, allowOverride, keys)
-        externalSources += directDI.container.tree.externalSources
-        importedModules.addAll(
-            containerBuilder.bindingsMap
-                .flatMap { it.value.map { it.fromModule } }
-                .filterNotNull()
-        )
+    override fun extendLayered(directDI: DirectDI, allowOverride: Boolean, copy: Copy) {
+        containerBuilder.extendLayered(directDI.container, allowOverride, copy.keySet(directDI.container.tree))
+        imported(directDI.container)
     }
 }
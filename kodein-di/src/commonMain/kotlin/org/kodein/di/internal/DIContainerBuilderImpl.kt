@@ -10,12 +10,13 @@ import org.kodein.di.bindings.DIBinding
  * @param allowOverride Whether or not the bindings defined by this builder or its imports are allowed to **explicitly** override existing bindings.
  * @param silentOverride Whether or not the bindings defined by this builder or its imports are allowed to **silently** override existing bindings.
  * @param bindingsMap The map that contains the bindings. Can be set at construction to construct a sub-builder (with different override permissions).
+ * @param callbacks The `onReady` callbacks, in registration order, each with whether it is independent.
  */
 internal class DIContainerBuilderImpl(
         allowOverride: Boolean,
         silentOverride: Boolean,
         internal val bindingsMap: MutableMap<DI.Key<*, *, *>, MutableList<DIDefining<*, *, *>>>,
-        internal val callbacks: MutableList<DirectDI.() -> Unit>,
+        internal val callbacks: MutableList<Pair<Boolean, DirectDI.() -> Unit>>,
         internal val translators: MutableList<ContextTranslator<*, *>>
 ) : DIContainer.Builder {
 
@@ -85,6 +86,23 @@ internal class DIContainerBuilderImpl(
      */
     private val _overrideMode = OverrideMode.get(allowOverride, silentOverride)
 
+    /**
+     * The layering of this builder, shared with its sub builders.
+     *
+     * @property parent The container this builder is layered over, if any.
+     * @property copiedKeys The keys copied from the [parent], whose definitions in the bindings map already contain all the parent definitions.
+     */
+    internal class Layer {
+        var parent: DIContainer? = null
+        val copiedKeys = HashSet<DI.Key<*, *, *>>()
+    }
+
+    internal var layer: Layer = Layer()
+        private set
+
+    private fun isBound(key: DI.Key<*, *, *>): Boolean =
+        key in bindingsMap || layer.parent?.tree?.get(key)?.first == key
+
     /**
      * Checks that the bindings conforms to it's overriding declaration.
      *
@@ -99,9 +117,9 @@ internal class DIContainerBuilderImpl(
         val mustOverride = _overrideMode.must(overrides)
 
         if (mustOverride != null) {
-            if (mustOverride && key !in bindingsMap)
+            if (mustOverride && !isBound(key))
                 throw DI.OverridingException("Binding $key must override an existing binding.")
-            if (!mustOverride && key in bindingsMap)
+            if (!mustOverride && isBound(key))
                 throw DI.OverridingException("Binding $key must not override an existing binding.")
         }
     }
@@ -147,9 +165,28 @@ internal class DIContainerBuilderImpl(
         translators += container.tree.registeredTranslators
     }
 
+    override fun extendLayered(container: DIContainer, allowOverride: Boolean, copy: Set<DI.Key<*, *, *>>) {
+        // A container can only be layered over one container, before any binding is defined.
+        check(layer.parent == null) { "A container can only be layered over a single container" }
+        check(bindingsMap.isEmpty()) { "Layering over a container must be done before defining or extending any binding" }
+
+        checkMatch(allowOverride)
+
+        layer.parent = container
+        copy.forEach { key ->
+            val (_, definitions, _) = container.tree[key]?.takeIf { it.first == key } ?: return@forEach
+            bindingsMap[key] = newLinkedList<DIDefining<*, *, *>>().also {
+                definitions.mapTo(it) { DIDefining(it.binding.copier?.copy(this@DIContainerBuilderImpl) ?: it.binding, it.fromModule) }
+            }
+            layer.copiedKeys += key
+        }
+
+        translators += container.tree.registeredTranslators
+    }
+
     override fun subBuilder(allowOverride: Boolean, silentOverride: Boolean): DIContainerBuilderImpl {
         checkMatch(allowOverride)
-        return DIContainerBuilderImpl(allowOverride, silentOverride, bindingsMap, callbacks, translators)
+        return DIContainerBuilderImpl(allowOverride, silentOverride, bindingsMap, callbacks, translators).also { it.layer = layer }
     }
 
     /**
@@ -158,7 +195,11 @@ internal class DIContainerBuilderImpl(
      * @param cb A callback.
      */
     override fun onReady(cb: DirectDI.() -> Unit) {
-        callbacks += cb
+        callbacks += false to cb
+    }
+
+    override fun onReady(independent: Boolean, cb: DirectDI.() -> Unit) {
+        callbacks += independent to cb
     }
 
     override fun registerContextTranslator(translator: ContextTranslator<*, *>) {
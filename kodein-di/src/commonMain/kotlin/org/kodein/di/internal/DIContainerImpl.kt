@@ -1,15 +1,26 @@
 package org.kodein.di.internal
 
-import kotlinx.atomicfu.locks.SynchronizedObject
+import kotlinx.atomicfu.locks.reentrantLock
 import org.kodein.di.AnyDIContext
 import org.kodein.di.BindingsMap
 import org.kodein.di.DI
 import org.kodein.di.DIContainer
 import org.kodein.di.DIContext
 import org.kodein.di.DITree
+import org.kodein.di.OnReadyRunner
 import org.kodein.di.SearchSpecs
+import org.kodein.di.bindings.BaseMultiBinding
 import org.kodein.di.bindings.BindingDI
+import org.kodein.di.bindings.ContextTranslator
+import org.kodein.di.bindings.DIBinding
 import org.kodein.di.bindings.ExternalSource
+import org.kodein.di.bindings.IndexedExternalSource
+import org.kodein.di.bindings.InstanceBinding
+import org.kodein.di.bindings.ListBinding
+import org.kodein.di.bindings.MapBinding
+import org.kodein.di.bindings.Multiton
+import org.kodein.di.bindings.Singleton
+import org.kodein.di.bindings.isContextIndependent
 import org.kodein.di.bindings.toKContext
 import org.kodein.di.description
 import org.kodein.di.fullDescription
@@ -17,15 +28,42 @@ import kotlin.concurrent.Volatile
 
 internal class DIContainerImpl private constructor(
         override val tree: DITree,
-        private val node: Node?,
         private val fullDescriptionOnError: Boolean,
         private val fullContainerTreeOnError: Boolean,
+        private val checkDependencyLoops: Boolean,
 ) : DIContainer {
 
     @Volatile
     var initCallbacks: (() -> Unit)? = null
         private set
 
+    /**
+     * A factory that has already been resolved by this container.
+     *
+     * @property factory The factory returned by the binding.
+     * @property contextFree Whether the factory can be used for any context, or only for [AnyDIContext].
+     */
+    private class ResolvedFactory(val factory: (Any?) -> Any, val contextFree: Boolean)
+
+    /**
+     * Factories already resolved by this container, for override level 0.
+     */
+    private val _resolved: MutableMap<DI.Key<*, *, *>, ResolvedFactory> = newConcurrentMap()
+
+    /**
+     * Keys that neither a binding nor an external source answered, for override level 0.
+     * A key is not recorded if one of the external sources that may answer it is dynamic, as it may answer it later.
+     * Bounded, so that retrievals with unbounded tags cannot grow it indefinitely.
+     */
+    private val _misses: MutableMap<DI.Key<*, *, *>, Unit> = newConcurrentMap()
+
+    private val _externalSources = ExternalSourceIndex(tree.externalSources)
+
+    /**
+     * Containers used by bindings that were defined in another tree (e.g. bindings copied from an extended DI).
+     */
+    private val _treeContainers: MutableMap<DITree, DIContainerImpl> = newConcurrentMap()
+
     /**
      * "Main" constructor that uses the bindings map configured by a [DIContainer.Builder].
      */
@@ -34,19 +72,39 @@ internal class DIContainerImpl private constructor(
         externalSources: List<ExternalSource>,
         fullDescriptionOnError: Boolean,
         fullContainerTreeOnError: Boolean,
+        freezeTree: Boolean,
+        checkDependencyLoops: Boolean,
+        onReadyRunner: OnReadyRunner?,
         runCallbacks: Boolean
-    ) : this(DITreeImpl(builder.bindingsMap, externalSources, builder.translators), null, fullDescriptionOnError, fullContainerTreeOnError) {
+    ) : this(
+        builder.layer.parent
+            ?.let { LayeredDITree(it.tree, builder.bindingsMap, builder.layer.copiedKeys, externalSources, builder.translators, freezeTree) }
+            ?: DITreeImpl(builder.bindingsMap, externalSources, builder.translators, freezeTree),
+        fullDescriptionOnError, fullContainerTreeOnError, checkDependencyLoops
+    ) {
+        // Bindings inherited by a layered container are retrieved by the containers of their own trees, so that their resolved factories are shared.
+        (builder.layer.parent as? DIContainerImpl)?.let { parent ->
+            _treeContainers.putAll(parent._treeContainers)
+            _treeContainers[parent.tree] = parent
+        }
+
         val init: () -> Unit = {
             val direct = createDirectDI(this, AnyDIContext)
-            builder.callbacks.forEach { it(direct) }
+            if (onReadyRunner == null) {
+                builder.callbacks.forEach { (_, cb) -> cb(direct) }
+            } else {
+                val (independent, dependent) = builder.callbacks.partition { (independent, _) -> independent }
+                onReadyRunner.runAll(independent.map { (_, cb) -> { direct.cb() } })
+                dependent.forEach { (_, cb) -> cb(direct) }
+            }
         }
 
         if (runCallbacks)
             init()
         else {
-            val lock = SynchronizedObject()
+            val lock = reentrantLock()
             initCallbacks = {
-                synchronizedIfNotNull(
+                lockedIfNotNull(
                         lock = lock,
                         predicate = this::initCallbacks,
                         ifNull = {},
@@ -59,135 +117,139 @@ internal class DIContainerImpl private constructor(
         }
     }
 
+    private fun <C : Any, A, T: Any> bindingDI(key: DI.Key<C, A, T>, context: DIContext<C>, tree: DITree, overrideLevel: Int) : BindingDI<C> {
+        val container = if (tree === this.tree) this else _treeContainers.getOrPut(tree) { DIContainerImpl(tree, fullDescriptionOnError, fullContainerTreeOnError, checkDependencyLoops) }
+        return BindingDIImpl(createDirectDI(container, context), key, overrideLevel)
+    }
+
     /**
-     * Class used to check for recursive dependencies, represents a node in the dependency tree.
-     *
-     * Each factory, in their Binding@getInstance methods receives a DI instance to enable transient dependency.
-     * However, it is not the same kodein instance as the one used to get the main dependency.
-     * Each time a transient dependency is needed, a new DI instance is constructed, with a new Node that has
-     * the current Node as it's parent.
-     * This allows, at each step, to walk up the node tree and check if the requested key has not yet been requested.
-     * If the same key exists twice in the tree, it means that it has, and that there's a dependency recursion.
-     *
-     * @property key The key of this node, meaning that this key has been looked for once.
-     * @property parent The parent node, meaning the parent lookup that needed this key.
+     * Wraps the factory so that its invocations are checked for dependency loops, if enabled.
      */
-    private class Node(private val key: DI.Key<*, *, *>, private val overrideLevel: Int, private val parent: Node?, private val fullDescriptionOnError: Boolean) {
-
-        /**
-         * Check that given key does **not** exist in the node tree or throws an exception if it does.
-         *
-         * @throws DI.DependencyLoopException if the key exists in the dependency tree.
-         */
-        fun check(searchedKey: DI.Key<*, *, *>, searchedOverrideLevel: Int) {
-            if (!recursiveCheck(this, searchedKey, searchedOverrideLevel)) {
-                val list = recursiveLoop(this, searchedKey, searchedOverrideLevel, emptyList()) + displayString(searchedKey, overrideLevel)
-                val sb = StringBuilder()
-                list.forEachIndexed { index, string ->
-                    sb.append("  ")
-                    when (index) {
-                        0 -> sb.append("   ")
-                        1 -> sb.append("  ╔╩>")
-                        else -> {
-                            sb.append("  ║")
-                            sb.append("  ".repeat(index - 1))
-                            sb.append("╚>")
-                        }
-                    }
-                    sb.append(string)
-                    sb.append("\n") // appendln does not exist in JS
-                }
-                sb.append("    ╚")
-                sb.append("══".repeat(list.size - 1))
-                sb.append("╝")
-                throw DI.DependencyLoopException("Dependency recursion:\n$sb")
-            }
-        }
-
-        private fun displayString(key: DI.Key<*, *, *>, overrideLevel: Int): String {
-            val descProp = if (fullDescriptionOnError) key::bindFullDescription else key::bindDescription
-            return if (overrideLevel != 0) "overridden ${descProp.get()}" else descProp.get()
-        }
-
-        /**
-         * @return The current transitive dependency tree as a list of string.
-         */
-        private tailrec fun recursiveLoop(node: Node, firstKey: DI.Key<*, *, *>, firstOverrideLevel: Int, tail: List<String>): List<String> {
-            return if (node.parent == null || (firstKey == node.key && firstOverrideLevel == node.overrideLevel))
-                listOf(displayString(node.key, node.overrideLevel)) + tail
-            else
-                return recursiveLoop(node.parent, firstKey, firstOverrideLevel, listOf(displayString(node.key, node.overrideLevel)) + tail)
-        }
+    private fun <A, T> checked(factory: (A) -> T, key: DI.Key<*, *, *>, overrideLevel: Int): (A) -> T =
+        if (checkDependencyLoops) factory.withLoopCheck(key, overrideLevel, fullDescriptionOnError) else factory
 
-        /**
-         * Recursive function that walks up the node tree to check if a specific key can be found.
-         *
-         * @return whether the given key exists in the tree.
-         */
-        private tailrec fun recursiveCheck(node: Node, searchedKey: DI.Key<*, *, *>, searchedOverrideLevel: Int): Boolean {
-            return if (node.key == searchedKey && node.overrideLevel == searchedOverrideLevel)
-                false
-            else if (node.parent == null)
-                true
-            else
-                recursiveCheck(node.parent, searchedKey, searchedOverrideLevel)
-        }
+    /**
+     * Whether the factory returned by this binding does not depend on the context it was retrieved with.
+     */
+    private fun isContextFree(binding: DIBinding<*, *, *>) = when (binding) {
+        is InstanceBinding<*> -> true
+        is Singleton<*, *> -> !binding.explicitContext && binding.scope.isContextIndependent
+        is Multiton<*, *, *> -> !binding.explicitContext && binding.scope.isContextIndependent
+        is BaseMultiBinding<*, *, *> -> binding.set.all { isContextFree(it) }
+        is MapBinding<*, *, *> -> binding.map.values.all { isContextFree(it) }
+        is ListBinding<*, *> -> binding.elements.all { isContextFree(it.binding) }
+        else -> false
+    }
 
+    @Suppress("UNCHECKED_CAST")
+    private fun <C : Any, A, T : Any> getResolved(key: DI.Key<C, A, T>, context: C, overrideLevel: Int): ((A) -> T)? {
+        if (overrideLevel != 0) return null
+        val resolved = _resolved[key] ?: return null
+        if (!resolved.contextFree && context !== AnyDIContext.value) return null
+        return resolved.factory as (A) -> T
     }
 
-    private fun <C : Any, A, T: Any> bindingDI(key: DI.Key<C, A, T>, context: DIContext<C>, tree: DITree, overrideLevel: Int) : BindingDI<C> {
-        val container = DIContainerImpl(tree, Node(key, overrideLevel, node, fullDescriptionOnError), fullDescriptionOnError, fullContainerTreeOnError)
-        return BindingDIImpl(createDirectDI(container, context), key, overrideLevel)
+    @Suppress("UNCHECKED_CAST")
+    private fun putResolved(key: DI.Key<*, *, *>, context: Any, overrideLevel: Int, translator: ContextTranslator<*, *>?, binding: DIBinding<*, *, *>, factory: (Nothing) -> Any) {
+        if (overrideLevel != 0 || translator != null) return
+        val contextFree = isContextFree(binding)
+        if (!contextFree && (context !== AnyDIContext.value || binding.scope != null)) return
+        _resolved[key] = ResolvedFactory(factory as (Any?) -> Any, contextFree)
     }
 
+    /**
+     * Whether the factory returned by this binding can be kept by a binding DI for as long as it lives, as its context never changes.
+     * A scoped binding whose factory depends on the context is excluded, as its scope may replace the registry of the context.
+     */
+    private fun isMemoizable(translator: ContextTranslator<*, *>?, binding: DIBinding<*, *, *>) =
+        translator == null && (binding.scope == null || isContextFree(binding))
+
+    override fun <C : Any, A, T: Any> factoryOrNull(key: DI.Key<C, A, T>, context: C, overrideLevel: Int): ((A) -> T)? =
+        factoryOrNull(key, context, overrideLevel, null)
+
+    /**
+     * Same as [factoryOrNull], but also gives the found factory to [memoize] if it can be reused for as long as [context] is.
+     */
     @Suppress("UNCHECKED_CAST")
-    override fun <C : Any, A, T: Any> factoryOrNull(key: DI.Key<C, A, T>, context: C, overrideLevel: Int): ((A) -> T)? {
+    internal fun <C : Any, A, T: Any> factoryOrNull(key: DI.Key<C, A, T>, context: C, overrideLevel: Int, memoize: (((Any?) -> Any) -> Unit)?): ((A) -> T)? {
+        getResolved(key, context, overrideLevel)?.let {
+            memoize?.invoke(it as (Any?) -> Any)
+            return it
+        }
+
+        if (overrideLevel == 0 && _misses.containsKey(key)) return null
+
         tree.find(key, 0).let {
             if (it.size == 1) {
                 val (_, definition, translator) = it[0]
-                node?.check(key, 0)
                 val originalContext = DIContext(key.contextType, context) as DIContext<Any>
                 val kContext = translator?.toKContext(createDirectDI(this, originalContext), context) ?: originalContext
                 key as DI.Key<Any, A, T>
                 val bindingDI = bindingDI(key, kContext, definition.tree, overrideLevel)
-                return definition.binding.getFactory(key, bindingDI)
+                return checked(definition.binding.getFactory(key, bindingDI), key, overrideLevel)
+                    .also { factory -> putResolved(key, context, overrideLevel, translator, definition.binding, factory) }
+                    .also { factory -> if (memoize != null && overrideLevel == 0 && isMemoizable(translator, definition.binding)) memoize(factory as (Any?) -> Any) }
             }
         }
 
+        externalFactoryOrNull(key, context, overrideLevel, memoize)?.let { return it }
+
+        if (overrideLevel == 0 && _misses.size < MAX_MISSES && _externalSources.sourcesFor(key).none { it.isDynamic && it.accepts(key) }) {
+            _misses[key] = Unit
+        }
+
+        return null
+    }
+
+    /**
+     * Queries the external sources that may answer [key], in order.
+     * The factory returned by a cacheable source is stored with the resolved factories (and given to [memoize]), so that the source is not queried again for [key].
+     */
+    @Suppress("UNCHECKED_CAST")
+    private fun <C : Any, A, T: Any> externalFactoryOrNull(key: DI.Key<C, A, T>, context: C, overrideLevel: Int, memoize: (((Any?) -> Any) -> Unit)?): ((A) -> T)? {
+        val sources = _externalSources.sourcesFor(key)
+        if (sources.isEmpty()) return null
+
         val bindingDI = bindingDI(key, DIContext(key.contextType, context), tree, overrideLevel)
-        tree.externalSources.forEach { source ->
-            source.getFactory(bindingDI, key)?.let {
-                node?.check(key, 0)
-                @Suppress("UNCHECKED_CAST")
-                return it as (A) -> T
+        for (source in sources) {
+            if (!source.accepts(key)) continue
+            val factory = source.getFactory(bindingDI, key)?.let { checked(it as (A) -> T, key, overrideLevel) } ?: continue
+            if (overrideLevel == 0 && source is IndexedExternalSource && source.isCacheable) {
+                _resolved[key] = ResolvedFactory(factory as (Any?) -> Any, true)
+                memoize?.invoke(factory as (Any?) -> Any)
             }
+            return factory
         }
-
         return null
     }
 
+    override fun <C : Any, A, T: Any> factory(key: DI.Key<C, A, T>, context: C, overrideLevel: Int): (A) -> T =
+        factory(key, context, overrideLevel, null)
+
+    /**
+     * Same as [factory], but also gives the found factory to [memoize] if it can be reused for as long as [context] is.
+     */
     @Suppress("UNCHECKED_CAST")
-    override fun <C : Any, A, T: Any> factory(key: DI.Key<C, A, T>, context: C, overrideLevel: Int): (A) -> T {
+    internal fun <C : Any, A, T: Any> factory(key: DI.Key<C, A, T>, context: C, overrideLevel: Int, memoize: (((Any?) -> Any) -> Unit)?): (A) -> T {
+        getResolved(key, context, overrideLevel)?.let {
+            memoize?.invoke(it as (Any?) -> Any)
+            return it
+        }
+
         val result = tree.find(key, overrideLevel)
 
         if (result.size == 1) {
             val (_, definition, translator) = result[0]
-            node?.check(key, overrideLevel)
             val originalContext = DIContext(key.contextType, context) as DIContext<Any>
             val kContext = translator?.toKContext(createDirectDI(this, originalContext), context) ?: originalContext
             key as DI.Key<Any, A, T>
             val bindingDI = bindingDI(key, kContext, definition.tree, overrideLevel)
-            return definition.binding.getFactory(key, bindingDI)
+            return checked(definition.binding.getFactory(key, bindingDI), key, overrideLevel)
+                .also { factory -> putResolved(key, context, overrideLevel, translator, definition.binding, factory) }
+                .also { factory -> if (memoize != null && overrideLevel == 0 && isMemoizable(translator, definition.binding)) memoize(factory as (Any?) -> Any) }
         }
 
-        val bindingDI = bindingDI(key, DIContext(key.contextType, context), tree, overrideLevel)
-        tree.externalSources.forEach { source ->
-            source.getFactory(bindingDI, key)?.let {
-                node?.check(key, overrideLevel)
-                @Suppress("UNCHECKED_CAST")
-                return it as (A) -> T
-            }
-        }
+        externalFactoryOrNull(key, context, overrideLevel, memoize)?.let { return it }
 
         val withOverrides = overrideLevel != 0
 
@@ -222,13 +284,15 @@ internal class DIContainerImpl private constructor(
         val result = tree.find(key, overrideLevel, all = true)
 
         return result.map { (_, definition, translator) ->
-            node?.check(key, overrideLevel)
             val originalContext = DIContext(key.contextType, context) as DIContext<Any>
             val kContext = translator?.toKContext(createDirectDI(this, originalContext), context) ?: originalContext
             key as DI.Key<Any, A, T>
             val bindingDI = bindingDI(key, kContext, definition.tree, overrideLevel)
-            definition.binding.getFactory(key, bindingDI)
+            checked(definition.binding.getFactory(key, bindingDI), key, overrideLevel)
         }
     }
 
+    private companion object {
+        const val MAX_MISSES = 4096
+    }
 }
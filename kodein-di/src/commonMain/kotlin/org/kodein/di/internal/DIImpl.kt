@@ -3,6 +3,8 @@ package org.kodein.di.internal
 import org.kodein.di.*
 import org.kodein.di.bindings.BindingDI
 import org.kodein.di.bindings.ErasedContext
+import org.kodein.type.TypeToken
+import kotlin.concurrent.Volatile
 
 /**
  * DI implementation.
@@ -13,7 +15,7 @@ import org.kodein.di.bindings.ErasedContext
 internal open class DIImpl internal constructor(private val _container: DIContainerImpl) : DI {
 
     @Suppress("unused")
-    private constructor(builder: DIMainBuilderImpl, runCallbacks: Boolean) : this(DIContainerImpl(builder.containerBuilder, builder.externalSources, builder.fullDescriptionOnError, builder.fullContainerTreeOnError, runCallbacks))
+    private constructor(builder: DIMainBuilderImpl, runCallbacks: Boolean) : this(DIContainerImpl(builder.containerBuilder, builder.externalSources, builder.fullDescriptionOnError, builder.fullContainerTreeOnError, builder.freezeTree, builder.checkDependencyLoops, builder.onReadyRunner, runCallbacks))
 
     constructor(allowSilentOverride: Boolean = false, init: DI.MainBuilder.() -> Unit) : this(newBuilder(allowSilentOverride, init), true)
 
@@ -36,16 +38,78 @@ internal open class DIImpl internal constructor(private val _container: DIContai
 
 @Suppress("UNCHECKED_CAST")
 internal open class BindingDIImpl<out C : Any, out A, out T: Any> internal constructor(
-        override val directDI: DirectDI,
+        private val _directDI: DirectDI,
         private val key: DI.Key<C, A, T>,
         private val overrideLevel: Int
-) : DirectDI by directDI, BindingDI<C> {
+) : DirectDI by _directDI, BindingDI<C> {
+    // Retrievals made through the DirectDIAware extensions are routed to this binding DI, so that they are memoized.
+    override val directDI: DirectDI get() = this
     override fun overriddenFactory(): (Any?) -> Any = container.factory(key, context, overrideLevel + 1) as (Any?) -> Any
     override fun overriddenFactoryOrNull(): ((Any?) -> Any)? = container.factoryOrNull(key, context, overrideLevel + 1) as ((Any?) -> Any)?
-    override val context: C get() = directDI.di.diContext.value as C
+    override val context: C get() = _directDI.di.diContext.value as C
     override fun onErasedContext(): BindingDI<C> = BindingDIImpl(
-        directDI.On(ErasedContext),
+        _directDI.On(ErasedContext),
         key,
         overrideLevel
     )
+
+    /**
+     * Factories of the dependencies this binding has already retrieved.
+     * As the context of a binding DI never changes, a factory that the container resolved without context translation can be reused for as long as this binding DI lives.
+     * Copied on write: concurrent first retrievals of different dependencies may lose an entry, which is then resolved again.
+     */
+    @Volatile
+    private var _factories: Map<DI.Key<*, *, *>, (Any?) -> Any> = emptyMap()
+
+    /**
+     * Factories resolved for each [NewPlan] used by this binding, copied on write like [_factories].
+     */
+    @Volatile
+    private var _plans: Map<NewPlan, Array<(Unit) -> Any>> = emptyMap()
+
+    /**
+     * @return The factories of the arguments of [plan], which are kept only if all of them were memoized.
+     */
+    internal fun planned(plan: NewPlan): Array<(Unit) -> Any> {
+        _plans[plan]?.let { return it }
+        val factories = plan.resolve(this)
+        val diContext = (_directDI as? DirectDIBaseImpl)?.context ?: return factories
+        val memoized = _factories
+        if (plan.types.all { DI.Key(diContext.type as TypeToken<in Any>, TypeToken.Unit, it as TypeToken<Any>, null) in memoized }) {
+            _plans = _plans + (plan to factories)
+        }
+        return factories
+    }
+
+    override fun <A, T : Any> Factory(argType: TypeToken<in A>, type: TypeToken<T>, tag: Any?): (A) -> T {
+        val diContext = (_directDI as? DirectDIBaseImpl)?.context ?: return _directDI.Factory(argType, type, tag)
+        val key = DI.Key(diContext.type as TypeToken<in Any>, argType, type, tag)
+        _factories[key]?.let { return it as (A) -> T }
+        val impl = container as? DIContainerImpl ?: return container.factory(key, diContext.value)
+        return impl.factory(key, diContext.value, 0) { factory -> _factories = _factories + (key to factory) }
+    }
+
+    override fun <A, T : Any> FactoryOrNull(argType: TypeToken<in A>, type: TypeToken<T>, tag: Any?): ((A) -> T)? {
+        val diContext = (_directDI as? DirectDIBaseImpl)?.context ?: return _directDI.FactoryOrNull(argType, type, tag)
+        val key = DI.Key(diContext.type as TypeToken<in Any>, argType, type, tag)
+        _factories[key]?.let { return it as (A) -> T }
+        val impl = container as? DIContainerImpl ?: return container.factoryOrNull(key, diContext.value)
+        return impl.factoryOrNull(key, diContext.value, 0) { factory -> _factories = _factories + (key to factory) }
+    }
+
+    override fun <T : Any> Provider(type: TypeToken<T>, tag: Any?): () -> T = Factory(TypeToken.Unit, type, tag).toProvider { }
+
+    override fun <A, T : Any> Provider(argType: TypeToken<in A>, type: TypeToken<T>, tag: Any?, arg: () -> A): () -> T = Factory(argType, type, tag).toProvider(arg)
+
+    override fun <T : Any> ProviderOrNull(type: TypeToken<T>, tag: Any?): (() -> T)? = FactoryOrNull(TypeToken.Unit, type, tag)?.toProvider { }
+
+    override fun <A, T : Any> ProviderOrNull(argType: TypeToken<in A>, type: TypeToken<T>, tag: Any?, arg: () -> A): (() -> T)? = FactoryOrNull(argType, type, tag)?.toProvider(arg)
+
+    override fun <T : Any> Instance(type: TypeToken<T>, tag: Any?): T = Factory(TypeToken.Unit, type, tag).invoke(Unit)
+
+    override fun <A, T : Any> Instance(argType: TypeToken<in A>, type: TypeToken<T>, tag: Any?, arg: A): T = Factory(argType, type, tag).invoke(arg)
+
+    override fun <T : Any> InstanceOrNull(type: TypeToken<T>, tag: Any?): T? = FactoryOrNull(TypeToken.Unit, type, tag)?.invoke(Unit)
+
+    override fun <A, T : Any> InstanceOrNull(argType: TypeToken<in A>, type: TypeToken<T>, tag: Any?, arg: A): T? = FactoryOrNull(argType, type, tag)?.invoke(arg)
 }
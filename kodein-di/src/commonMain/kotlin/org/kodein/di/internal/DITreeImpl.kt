@@ -27,14 +27,96 @@ private typealias ArgumentTypeTree = MutableMap<TypeChecker.Down, TagTree>
 
 private typealias TagTree = MutableMap<Any?, DI.Key<*, *, *>>
 
+private typealias SearchResult = List<Triple<DI.Key<*, *, *>, DIDefinition<*, *, *>, ContextTranslator<*, *>?>>
+
+/**
+ * Flat, immutable version of a [BoundTypeTree], compiled once when the tree is frozen.
+ *
+ * Each key is an index in parallel arrays.
+ * Keys are grouped in buckets sharing the same bound type checker, so that a search checks the assignability of each bound type only once.
+ */
+private class FrozenTypeIndex(typeTree: BoundTypeTree) {
+    private val bindTypes: Array<TypeChecker>
+    private val bucketStarts: IntArray
+    private val contextTypes: Array<TypeChecker.Down>
+    private val argTypes: Array<TypeChecker.Down>
+    private val tags: Array<Any?>
+    private val keys: Array<DI.Key<*, *, *>>
+
+    init {
+        val size = typeTree.values.sumOf { contextTree -> contextTree.values.sumOf { argumentTree -> argumentTree.values.sumOf { it.size } } }
+        val bindTypeList = ArrayList<TypeChecker>(typeTree.size)
+        val contextTypeList = ArrayList<TypeChecker.Down>(size)
+        val argTypeList = ArrayList<TypeChecker.Down>(size)
+        val tagList = ArrayList<Any?>(size)
+        val keyList = ArrayList<DI.Key<*, *, *>>(size)
+        bucketStarts = IntArray(typeTree.size + 1)
+        for ((bindType, contextTree) in typeTree) {
+            bucketStarts[bindTypeList.size] = keyList.size
+            bindTypeList += bindType
+            for ((contextType, argumentTree) in contextTree) {
+                for ((argType, tagTree) in argumentTree) {
+                    for ((tag, key) in tagTree) {
+                        contextTypeList += contextType
+                        argTypeList += argType
+                        tagList += tag
+                        keyList += key
+                    }
+                }
+            }
+        }
+        bucketStarts[bindTypeList.size] = keyList.size
+        bindTypes = bindTypeList.toTypedArray()
+        contextTypes = contextTypeList.toTypedArray()
+        argTypes = argTypeList.toTypedArray()
+        tags = tagList.toTypedArray()
+        keys = keyList.toTypedArray()
+    }
+
+    fun search(specs: SearchSpecs, translators: List<ContextTranslator<*, *>>): List<Pair<DI.Key<*, *, *>, ContextTranslator<*, *>?>> {
+        val specsBindType = specs.type?.takeIf { it != TypeToken.Any }
+        val specsContextType = specs.contextType
+        val specsArgType = specs.argType
+        val specsTag = specs.tag
+        val result = ArrayList<Pair<DI.Key<*, *, *>, ContextTranslator<*, *>?>>()
+        for (bucket in bindTypes.indices) {
+            if (specsBindType != null && !bindTypes[bucket].check(specsBindType)) continue
+            for (index in bucketStarts[bucket] until bucketStarts[bucket + 1]) {
+                var translator: ContextTranslator<*, *>? = null
+                if (specsContextType != null && !contextTypes[index].check(specsContextType)) {
+                    val contextType = contextTypes[index]
+                    translator = translators.firstOrNull { it.contextType.isAssignableFrom(specsContextType) && contextType.check(it.scopeType) } ?: continue
+                }
+                if (specsArgType != null && !argTypes[index].check(specsArgType)) continue
+                if (specsTag != SearchSpecs.NoDefinedTag && tags[index] != specsTag) continue
+                result += keys[index] to translator
+            }
+        }
+        return result
+    }
+}
+
+/**
+ * Results of a search in a frozen tree, for every override level.
+ */
+private class FrozenResult(private val levels: Array<SearchResult>) {
+    fun at(overrideLevel: Int): SearchResult = if (overrideLevel < levels.size) levels[overrideLevel] else emptyList()
+}
+
 internal class DITreeImpl(
         map: Map<DI.Key<*, *, *>, List<DIDefining<*, *, *>>>,
         override val externalSources: List<ExternalSource>,
-        override val registeredTranslators: List<ContextTranslator<*, *>>
+        override val registeredTranslators: List<ContextTranslator<*, *>>,
+        frozen: Boolean = false,
+        owner: DITree? = null
 ): DITree {
     private val _cache: MutableMap<DI.Key<*, *, *>, Triple<DI.Key<*, *, *>, List<DIDefinition<*, *, *>>, ContextTranslator<*, *>?>> = newConcurrentMap()
     private val _typeTree: BoundTypeTree = HashMap()
 
+    private val _frozenIndex: FrozenTypeIndex?
+    private val _frozenResults: MutableMap<DI.Key<*, *, *>, FrozenResult>?
+    private val _frozenAllResults: MutableMap<DI.Key<*, *, *>, FrozenResult>?
+
     override val bindings: BindingsMap
 
     private val translators = ArrayList(registeredTranslators)
@@ -44,7 +126,7 @@ internal class DITreeImpl(
             val definitions = bindings.map {
                 when (it) {
                     is DIDefinition<*, *, *> -> it
-                    else -> DIDefinition(it.binding, it.fromModule, this)
+                    else -> DIDefinition(it.binding, it.fromModule, owner ?: this)
                 }
             }
             _cache[key] = Triple(key, definitions, null)
@@ -72,9 +154,24 @@ internal class DITreeImpl(
             if (added.isEmpty())
                 break
         }
+
+        if (frozen) {
+            _frozenIndex = FrozenTypeIndex(_typeTree)
+            _frozenResults = newConcurrentMap()
+            _frozenAllResults = newConcurrentMap()
+            _cache.forEach { (key, triple) ->
+                _frozenResults[key] = FrozenResult(Array(triple.second.size) { listOf(Triple(key, triple.second[it], null)) })
+            }
+        } else {
+            _frozenIndex = null
+            _frozenResults = null
+            _frozenAllResults = null
+        }
     }
 
     private fun findBySpecs(specs: SearchSpecs): List<Pair<DI.Key<*, *, *>, ContextTranslator<*, *>?>> {
+        _frozenIndex?.let { return it.search(specs, translators) }
+
         var bindSeq: Sequence<Map.Entry<TypeChecker, ContextTypeTree>> = _typeTree.asSequence()
         val specsBindType = specs.type
         if (specsBindType != null && specsBindType != TypeToken.Any) {
@@ -116,6 +213,19 @@ internal class DITreeImpl(
 
     @Suppress("UNCHECKED_CAST")
     override fun <C : Any, A, T : Any> find(key: DI.Key<C, A, T>, overrideLevel: Int, all: Boolean): List<Triple<DI.Key<Any, A, T>, DIDefinition<Any, A, T>, ContextTranslator<C, Any>?>> {
+        val frozenResults = (if (all) _frozenAllResults else _frozenResults) ?: return findInTree(key, overrideLevel, all)
+
+        val result = frozenResults[key] ?: run {
+            val first = findInTree(key, 0, all)
+            val levelCount = first.maxOfOrNull { (realKey) -> _cache[realKey]?.second?.size ?: 0 } ?: 0
+            val levels = Array<SearchResult>(maxOf(levelCount, 1)) { if (it == 0) first else findInTree(key, it, all) }
+            FrozenResult(levels).also { frozenResults[key] = it }
+        }
+        return result.at(overrideLevel) as List<Triple<DI.Key<Any, A, T>, DIDefinition<Any, A, T>, ContextTranslator<C, Any>?>>
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    private fun <C : Any, A, T : Any> findInTree(key: DI.Key<C, A, T>, overrideLevel: Int, all: Boolean): List<Triple<DI.Key<Any, A, T>, DIDefinition<Any, A, T>, ContextTranslator<C, Any>?>> {
 
         if (!all) {
             _cache[key]?.let { (realKey, list, translator) ->
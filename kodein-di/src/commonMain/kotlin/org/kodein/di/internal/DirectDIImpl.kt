@@ -33,6 +33,10 @@ internal abstract class DirectDIBaseImpl protected constructor(override val cont
     override fun <T : Any> InstanceOrNull(type: TypeToken<T>, tag: Any?): T? = container.providerOrNull(DI.Key(context.anyType, TypeToken.Unit, type, tag), context.value)?.invoke()
 
     override fun <A, T : Any> InstanceOrNull(argType: TypeToken<in A>, type: TypeToken<T>, tag: Any?, arg: A): T? = container.factoryOrNull(DI.Key(context.anyType, argType, type, tag), context.value)?.invoke(arg)
+
+    override fun <T : Any> ProviderHandle(type: TypeToken<T>, tag: Any?): ProviderHandle<T> = ProviderHandle(container, DI.Key(context.anyType, TypeToken.Unit, type, tag), context)
+
+    override fun <A, T : Any> FactoryHandle(argType: TypeToken<in A>, type: TypeToken<T>, tag: Any?): FactoryHandle<A, T> = FactoryHandle(container, DI.Key(context.anyType, argType, type, tag), context)
 }
 
 internal expect fun createDirectDI(container: DIContainer, context: DIContext<*>) : DirectDI
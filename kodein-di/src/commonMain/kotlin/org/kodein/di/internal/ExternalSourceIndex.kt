@@ -0,0 +1,38 @@
+package org.kodein.di.internal
+
+import org.kodein.di.DI
+import org.kodein.di.bindings.ExternalSource
+import org.kodein.di.bindings.IndexedExternalSource
+import org.kodein.type.TypeToken
+
+/**
+ * The external sources of a container, indexed by the types that [IndexedExternalSource]s declare.
+ *
+ * For each key, the sources that may answer it are kept in the order they were added.
+ */
+internal class ExternalSourceIndex(sources: List<ExternalSource>) {
+
+    /** The sources that do not declare their types, and therefore may answer any key. */
+    private val _unindexed: List<ExternalSource> = sources.filter { it !is IndexedExternalSource }
+
+    private val _byType: Map<TypeToken<*>, List<ExternalSource>>
+
+    init {
+        val served = sources.filterIsInstance<IndexedExternalSource>().associateWith { it.types.toHashSet() }
+        val types = served.values.flatMapTo(HashSet()) { it }
+        _byType = types.associateWith { type ->
+            sources.filter { it !is IndexedExternalSource || type in served.getValue(it) }
+        }
+    }
+
+    /**
+     * @return The sources that may answer the type of [key], in the order they were added, which must then be filtered with [accepts].
+     */
+    fun sourcesFor(key: DI.Key<*, *, *>): List<ExternalSource> =
+        if (_byType.isEmpty()) _unindexed else _byType[key.type] ?: _unindexed
+}
+
+/**
+ * Whether this source may answer the tag of [key].
+ */
+internal fun ExternalSource.accepts(key: DI.Key<*, *, *>): Boolean = this !is IndexedExternalSource || acceptsTag(key.tag)
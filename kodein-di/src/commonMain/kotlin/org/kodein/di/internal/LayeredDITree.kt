@@ -0,0 +1,80 @@
+package org.kodein.di.internal
+
+import org.kodein.di.BindingsMap
+import org.kodein.di.DI
+import org.kodein.di.DIDefinition
+import org.kodein.di.DIDefining
+import org.kodein.di.DITree
+import org.kodein.di.SearchSpecs
+import org.kodein.di.bindings.ContextTranslator
+import org.kodein.di.bindings.ExternalSource
+
+/**
+ * Tree of a layered container: only its own bindings are indexed, the other bindings are looked up in the [parent] tree, which is shared and never copied.
+ *
+ * A binding defined in this tree with the same key as a binding of the [parent] tree overrides it:
+ * the definitions of a key are its own definitions, followed by the definitions of the [parent] tree (unless the key was copied, in which case they already are in the own definitions).
+ *
+ * @param parent The tree of the container this tree is layered over.
+ * @param map The own bindings of this tree.
+ * @param copiedKeys The keys of the bindings that were copied from the [parent] tree in [map].
+ */
+internal class LayeredDITree(
+    private val parent: DITree,
+    map: Map<DI.Key<*, *, *>, List<DIDefining<*, *, *>>>,
+    private val copiedKeys: Set<DI.Key<*, *, *>>,
+    externalSources: List<ExternalSource>,
+    registeredTranslators: List<ContextTranslator<*, *>>,
+    frozen: Boolean = false
+) : DITree {
+
+    private val _own = DITreeImpl(map, externalSources, registeredTranslators, frozen, owner = this)
+
+    private val _definitions: MutableMap<DI.Key<*, *, *>, List<DIDefinition<*, *, *>>> = newConcurrentMap()
+    private val _matches: MutableMap<DI.Key<*, *, *>, List<Pair<DI.Key<*, *, *>, ContextTranslator<*, *>?>>> = newConcurrentMap()
+    private val _allMatches: MutableMap<DI.Key<*, *, *>, List<Pair<DI.Key<*, *, *>, ContextTranslator<*, *>?>>> = newConcurrentMap()
+
+    override val externalSources: List<ExternalSource> get() = _own.externalSources
+
+    override val registeredTranslators: List<ContextTranslator<*, *>> get() = _own.registeredTranslators
+
+    override val bindings: BindingsMap by lazy {
+        parent.bindings + _own.bindings.mapValues { definitionsOf(it.key) }
+    }
+
+    private fun isOwn(key: DI.Key<*, *, *>) = key in _own.bindings
+
+    private fun definitionsOf(key: DI.Key<*, *, *>): List<DIDefinition<*, *, *>> = _definitions.getOrPut(key) {
+        val own = _own[key]?.takeIf { it.first == key }?.second.orEmpty()
+        if (key in copiedKeys) return@getOrPut own
+        val inherited = parent[key]?.takeIf { it.first == key }?.second.orEmpty()
+        if (own.isEmpty()) inherited else own + inherited
+    }
+
+    private fun matchesOf(key: DI.Key<*, *, *>, all: Boolean): List<Pair<DI.Key<*, *, *>, ContextTranslator<*, *>?>> =
+        (if (all) _allMatches else _matches).getOrPut(key) {
+            val own = _own.find(key, 0, all).map { (realKey, _, translator) -> realKey to translator }
+            val inherited = parent.find(key, 0, all).mapNotNull { (realKey, _, translator) -> if (isOwn(realKey)) null else realKey to translator }
+            if (all) own + inherited
+            else own.firstOrNull { it.first == key }?.let { listOf(it) }
+                ?: inherited.firstOrNull { it.first == key }?.let { listOf(it) }
+                ?: (own + inherited)
+        }
+
+    @Suppress("UNCHECKED_CAST")
+    override fun <C : Any, A, T : Any> find(key: DI.Key<C, A, T>, overrideLevel: Int, all: Boolean): List<Triple<DI.Key<Any, A, T>, DIDefinition<Any, A, T>, ContextTranslator<C, Any>?>> =
+        matchesOf(key, all).mapNotNull { (realKey, translator) ->
+            val definition = definitionsOf(realKey).getOrNull(overrideLevel) ?: return@mapNotNull null
+            Triple(realKey as DI.Key<Any, A, T>, definition as DIDefinition<Any, A, T>, translator as ContextTranslator<C, Any>?)
+        }
+
+    override fun find(search: SearchSpecs): List<Triple<DI.Key<*, *, *>, List<DIDefinition<*, *, *>>, ContextTranslator<*, *>?>> =
+        _own.find(search).map { (key, _, translator) -> Triple(key, definitionsOf(key), translator) } +
+            parent.find(search).filter { (key) -> !isOwn(key) }
+
+    @Suppress("UNCHECKED_CAST")
+    override fun <C : Any, A, T : Any> get(key: DI.Key<C, A, T>): Triple<DI.Key<Any, A, T>, List<DIDefinition<Any, A, T>>, ContextTranslator<C, Any>?>? {
+        val (realKey, _, translator) = _own[key] ?: return parent[key]
+        return Triple(realKey, definitionsOf(realKey) as List<DIDefinition<Any, A, T>>, translator)
+    }
+}
@@ -0,0 +1,163 @@
+package org.kodein.di.internal
+
+import org.kodein.di.DI
+import kotlin.concurrent.Volatile
+
+/**
+ * Stack of the bindings that are currently being resolved by the current thread, used to detect dependency loops.
+ *
+ * Each time a factory is invoked, its key and override level are pushed on the stack, and popped once the factory returns.
+ * If a factory is invoked while its key and override level are already on the stack, it means that there's a dependency recursion.
+ *
+ * The stack is backed by arrays, and indexed by an open-addressed hash table (with linear probing) so that checking for a key costs O(1).
+ * Pushing and popping do not allocate, except when the stack needs to grow.
+ */
+internal class ResolutionStack {
+
+    private var keys: Array<DI.Key<*, *, *>?> = arrayOfNulls(INITIAL_CAPACITY)
+    private var levels = IntArray(INITIAL_CAPACITY)
+
+    /** Contains `stack index + 1`, or 0 for an empty slot. Always at least twice as big as the stack. */
+    private var table = IntArray(INITIAL_CAPACITY * 2)
+
+    /**
+     * The lock this thread is currently waiting for, if any.
+     * Used to detect threads that are waiting for each other.
+     */
+    @Volatile
+    var waitingFor: OwnedLock? = null
+
+    /** Number of keys currently on the stack. */
+    var depth: Int = 0
+        private set
+
+    private fun slotOf(key: DI.Key<*, *, *>, overrideLevel: Int, mask: Int): Int {
+        val hash = key.hashCode() * 31 + overrideLevel
+        return (hash xor (hash ushr 16)) and mask
+    }
+
+    /**
+     * @return The index of the given key & override level in the stack, or -1 if they are not being resolved.
+     */
+    fun indexOf(key: DI.Key<*, *, *>, overrideLevel: Int): Int {
+        val mask = table.size - 1
+        var slot = slotOf(key, overrideLevel, mask)
+        while (true) {
+            val entry = table[slot]
+            if (entry == 0) return -1
+            val index = entry - 1
+            if (levels[index] == overrideLevel && keys[index] == key) return index
+            slot = (slot + 1) and mask
+        }
+    }
+
+    fun push(key: DI.Key<*, *, *>, overrideLevel: Int) {
+        if (depth == keys.size) grow()
+        keys[depth] = key
+        levels[depth] = overrideLevel
+        insert(depth)
+        ++depth
+    }
+
+    fun pop() {
+        --depth
+        remove(depth)
+        keys[depth] = null
+    }
+
+    private fun insert(index: Int) {
+        val mask = table.size - 1
+        var slot = slotOf(keys[index]!!, levels[index], mask)
+        while (table[slot] != 0) slot = (slot + 1) and mask
+        table[slot] = index + 1
+    }
+
+    private fun remove(index: Int) {
+        val mask = table.size - 1
+        var hole = slotOf(keys[index]!!, levels[index], mask)
+        while (table[hole] != index + 1) hole = (hole + 1) and mask
+
+        // Backward shift deletion: moves back the following entries of the cluster that would not be reachable anymore.
+        var slot = (hole + 1) and mask
+        while (table[slot] != 0) {
+            val moved = table[slot] - 1
+            val home = slotOf(keys[moved]!!, levels[moved], mask)
+            val reachable = if (hole <= slot) home in (hole + 1)..slot else home in (hole + 1)..mask || home <= slot
+            if (!reachable) {
+                table[hole] = table[slot]
+                hole = slot
+            }
+            slot = (slot + 1) and mask
+        }
+        table[hole] = 0
+    }
+
+    private fun grow() {
+        keys = keys.copyOf(keys.size * 2)
+        levels = levels.copyOf(levels.size * 2)
+        table = IntArray(keys.size * 2)
+        for (index in 0 until depth) insert(index)
+    }
+
+    private fun displayString(key: DI.Key<*, *, *>, overrideLevel: Int, fullDescriptionOnError: Boolean): String {
+        val desc = if (fullDescriptionOnError) key.bindFullDescription else key.bindDescription
+        return if (overrideLevel != 0) "overridden $desc" else desc
+    }
+
+    /**
+     * Check that given key is **not** being resolved or throws an exception if it is.
+     *
+     * @throws DI.DependencyLoopException if the key is currently being resolved.
+     */
+    fun check(searchedKey: DI.Key<*, *, *>, searchedOverrideLevel: Int, fullDescriptionOnError: Boolean) {
+        val first = indexOf(searchedKey, searchedOverrideLevel)
+        if (first == -1) return
+
+        val list = (first until depth).map { displayString(keys[it]!!, levels[it], fullDescriptionOnError) } + displayString(searchedKey, levels[depth - 1], fullDescriptionOnError)
+        val sb = StringBuilder()
+        list.forEachIndexed { index, string ->
+            sb.append("  ")
+            when (index) {
+                0 -> sb.append("   ")
+                1 -> sb.append("  ╔╩>")
+                else -> {
+                    sb.append("  ║")
+                    sb.append("  ".repeat(index - 1))
+                    sb.append("╚>")
+                }
+            }
+            sb.append(string)
+            sb.append("\n") // appendln does not exist in JS
+        }
+        sb.append("    ╚")
+        sb.append("══".repeat(list.size - 1))
+        sb.append("╝")
+        throw DI.DependencyLoopException("Dependency recursion:\n$sb")
+    }
+
+    private companion object {
+        const val INITIAL_CAPACITY = 16
+    }
+}
+
+/**
+ * @return The resolution stack of the current thread.
+ */
+internal expect fun resolutionStack(): ResolutionStack
+
+/**
+ * Wraps a factory so that each invocation checks for a dependency loop, and marks its key as being resolved while it runs.
+ */
+internal fun <A, T> ((A) -> T).withLoopCheck(key: DI.Key<*, *, *>, overrideLevel: Int, fullDescriptionOnError: Boolean): (A) -> T {
+    val factory = this
+    return { arg ->
+        val stack = resolutionStack()
+        stack.check(key, overrideLevel, fullDescriptionOnError)
+        stack.push(key, overrideLevel)
+        try {
+            factory(arg)
+        } finally {
+            stack.pop()
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package org.kodein.di.internal
 
+import kotlinx.atomicfu.locks.ReentrantLock
 import kotlinx.atomicfu.locks.SynchronizedObject
+import kotlinx.atomicfu.locks.reentrantLock
 import kotlinx.atomicfu.locks.synchronized
+import kotlinx.atomicfu.locks.withLock
+import org.kodein.di.DI
+import kotlin.concurrent.Volatile
 
 /**
  * Using kotlinx-atomicfu may cause some performance issues on native platforms.
@@ -43,3 +48,103 @@ internal inline fun <T: Any, R> synchronizedIfNotNull(lock: SynchronizedObject?,
 
     return ifNull()
 }
+
+/**
+ * Same as [maySynchronized], but with a [ReentrantLock].
+ *
+ * Locks that are held while user code runs (e.g. while an instance is being created) are [ReentrantLock]s rather than monitors:
+ * on the JVM, a virtual thread that blocks while holding a monitor pins its carrier thread (until JDK 24), which it does not with a [ReentrantLock].
+ */
+internal inline fun <R> mayLock(lock: ReentrantLock?, block: () -> R): R =
+    if (lock == null) {
+        block()
+    } else {
+        lock.withLock(block)
+    }
+
+/**
+ * Same as [synchronizedIfNull], but with a [ReentrantLock].
+ */
+internal inline fun <T: Any, R> lockedIfNull(lock: ReentrantLock?, predicate: () -> T?, ifNotNull: (T) -> R, ifNull: () -> R): R {
+    predicate()?.let {
+        return ifNotNull(it)
+    }
+
+    val value = mayLock(lock) {
+        predicate()?.let { return@mayLock it }
+
+        return ifNull()
+    }
+
+    return ifNotNull(value)
+}
+
+/**
+ * Same as [synchronizedIfNotNull], but with a [ReentrantLock].
+ */
+internal inline fun <T: Any, R> lockedIfNotNull(lock: ReentrantLock?, predicate: () -> T?, ifNull: () -> R, ifNotNull: (T) -> R): R {
+    if (predicate() == null) {
+        return ifNull()
+    }
+
+    mayLock(lock) {
+        val value = predicate() ?: return@mayLock
+
+        return ifNotNull(value)
+    }
+
+    return ifNull()
+}
+
+/**
+ * A lock that knows which thread (identified by its [ResolutionStack]) currently holds it.
+ *
+ * This allows to detect threads that wait for each other's lock, which would otherwise deadlock.
+ */
+internal open class OwnedLock {
+    /** The lock itself, held while the value it guards is being created. */
+    val lock: ReentrantLock = reentrantLock()
+
+    @Volatile
+    var owner: ResolutionStack? = null
+
+    /**
+     * Whether the thread that holds this lock is (transitively) waiting for a lock held by the thread of the given stack.
+     */
+    fun isOwnedByWaiterOf(stack: ResolutionStack): Boolean {
+        var current: OwnedLock? = this
+        while (current != null) {
+            val owner = current.owner ?: return false
+            if (owner === stack) return true
+            current = owner.waitingFor
+        }
+        return false
+    }
+}
+
+/**
+ * Runs the block while holding the lock, and records the current thread as its owner.
+ *
+ * @throws DI.DependencyLoopException if the thread that holds this lock is waiting for a lock held by this thread.
+ */
+internal inline fun <R> OwnedLock.withOwnership(block: () -> R): R {
+    val stack = resolutionStack()
+    if (owner === stack) return block()
+
+    stack.waitingFor = this
+    try {
+        if (isOwnedByWaiterOf(stack))
+            throw DI.DependencyLoopException("Dependency recursion: this value is being created by another thread that is waiting for a value created by this thread.")
+        return lock.withLock {
+            stack.waitingFor = null
+            owner = stack
+            try {
+                block()
+            } finally {
+                owner = null
+            }
+        }
+    } finally {
+        stack.waitingFor = null
+    }
+}
@@ -13,4 +13,20 @@ package org.kodein.di
 public inline fun subDI(parentDI: DI, allowSilentOverride: Boolean = false, copy: Copy = Copy.NonCached, crossinline init: DI.MainBuilder.() -> Unit): LazyDI = DI.lazy(allowSilentOverride) {
     extend(parentDI, copy = copy)
     init()
+}
+
+/**
+ * Allow to create an extended version of a given [DI] container, optionally layered over it.
+ *
+ * @param parentDI the [DI] container that will be extended
+ * @param layered Whether the new container is layered over [parentDI] instead of copying its bindings map, which makes its creation cost proportional to its own bindings only.
+ * @param allowSilentOverride Whether the configuration block is allowed to non-explicit overrides.
+ * @param copy The copy specifications, that defines which bindings will be copied to the new container.
+ *   By default, all bindings that do not hold references (e.g. not singleton or multiton) are copied, unless [layered] is true, in which case none are.
+ * @param init [DI] container configuration block
+ */
+public inline fun subDI(parentDI: DI, layered: Boolean, allowSilentOverride: Boolean = false, copy: Copy? = null, crossinline init: DI.MainBuilder.() -> Unit): LazyDI = DI.lazy(allowSilentOverride) {
+    if (layered) extendLayered(parentDI, copy = copy ?: Copy.None)
+    else extend(parentDI, copy = copy ?: Copy.NonCached)
+    init()
 }
\ No newline at end of file
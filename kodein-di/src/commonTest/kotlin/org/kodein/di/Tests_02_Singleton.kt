@@ -2,10 +2,18 @@ package org.kodein.di
 
 import kotlin.test.Test
 import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertNotSame
 import kotlin.test.assertSame
+import kotlin.test.assertTrue
+import org.kodein.di.bindings.UnboundedScope
+import org.kodein.di.bindings.expireAfter
+import org.kodein.di.test.CloseableData
 import org.kodein.di.test.FixMethodOrder
 import org.kodein.di.test.MethodSorters
 import org.kodein.di.test.Person
+import kotlin.time.Duration.Companion.seconds
+import kotlin.time.TestTimeSource
 
 @FixMethodOrder(MethodSorters.NAME_ASCENDING)
 class Tests_02_Singleton {
@@ -111,4 +119,56 @@ class Tests_02_Singleton {
         assertEquals("Tagged", p1.name)
     }
 
+    @Test
+    fun test_09_UnboundedSingletonIsRecreatedAfterClear() {
+        val scope = UnboundedScope()
+        val di = DI.direct {
+            bind<CloseableData>() with scoped(scope).singleton { CloseableData() }
+        }
+
+        val c1 = di.instance<CloseableData>()
+        assertSame(c1, di.instance<CloseableData>())
+
+        scope.close()
+        assertTrue(c1.closed)
+
+        val c2 = di.instance<CloseableData>()
+        assertNotSame(c1, c2)
+        assertFalse(c2.closed)
+        assertSame(c2, di.instance<CloseableData>())
+    }
+
+    @Test
+    fun test_10_UnboundedSingletonIsRecreatedAfterRemove() {
+        val scope = UnboundedScope()
+        val di = DI.direct {
+            bind<CloseableData>() with scoped(scope).singleton { CloseableData() }
+        }
+
+        val c1 = di.instance<CloseableData>()
+        scope.registry.values().forEach { (key, _) -> scope.registry.remove(key) }
+        assertTrue(c1.closed)
+
+        val c2 = di.instance<CloseableData>()
+        assertNotSame(c1, c2)
+        assertSame(c2, di.instance<CloseableData>())
+    }
+
+    @Test
+    fun test_11_ExpiringSingleton() {
+        val time = TestTimeSource()
+        var count = 0
+        val di = DI.direct {
+            bindSingleton(ref = expireAfter(10.seconds, time)) { Person("Salomon ${++count}") }
+        }
+
+        val p1 = di.instance<Person>()
+        time += 9.seconds
+        assertSame(p1, di.instance<Person>())
+
+        time += 1.seconds
+        val p2 = di.instance<Person>()
+        assertEquals("Salomon 2", p2.name)
+        assertSame(p2, di.instance<Person>())
+    }
 }
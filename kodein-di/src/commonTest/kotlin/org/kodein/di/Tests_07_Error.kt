@@ -207,4 +207,60 @@ Dependency recursion:
             di.factory<Int, Person>()
         }
     }
+
+    @Test
+    fun test_13_DependencyLoopDoesNotLeak() {
+
+        val di = DI {
+            bind<A>() with singleton { A(instance()) }
+            bind<B>() with singleton { B(instance()) }
+            bind<C>() with singleton { C(instance()) }
+            bind<Person>() with provider { Person() }
+        }
+
+        assertFailsWith<DI.DependencyLoopException> {
+            di.direct.instance<A>()
+        }
+
+        assertNotNull(di.direct.instance<Person>())
+        assertFailsWith<DI.DependencyLoopException> {
+            di.direct.instance<B>()
+        }
+    }
+
+    @Test
+    fun test_14_DeepDependencyGraph() {
+
+        val di = DI {
+            bind<Int>(tag = 0) with provider { 0 }
+            for (i in 1..100) {
+                bind<Int>(tag = i) with provider { instance<Int>(tag = i - 1) + 1 }
+            }
+            bind<Int>(tag = "loop") with provider { instance<Int>(tag = 200) }
+            for (i in 101..200) {
+                bind<Int>(tag = i) with provider { instance<Int>(tag = if (i == 101) "loop" else i - 1) }
+            }
+        }
+
+        assertEquals(100, di.direct.instance<Int>(tag = 100))
+        assertFailsWith<DI.DependencyLoopException> {
+            di.direct.instance<Int>(tag = 150)
+        }
+        assertEquals(100, di.direct.instance<Int>(tag = 100))
+    }
+
+    @Test
+    fun test_15_NoDependencyLoopCheck() {
+
+        val di = DI {
+            checkDependencyLoops = false
+            bind<A>() with singleton { A(instance()) }
+            bind<A>(tag = "root") with singleton { A(null) }
+            bind<B>() with singleton { B(instance()) }
+            bind<C>() with singleton { C(instance(tag = "root")) }
+        }
+
+        val a by di.instance<A>()
+        assertNotNull(a.b?.c?.a)
+    }
 }
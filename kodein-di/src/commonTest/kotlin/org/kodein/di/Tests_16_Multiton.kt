@@ -1,5 +1,6 @@
 package org.kodein.di
 
+import org.kodein.di.bindings.MultitonEviction
 import org.kodein.di.bindings.SingleItemScopeRegistry
 import org.kodein.di.bindings.UnboundedScope
 import org.kodein.di.test.CloseableData
@@ -7,6 +8,8 @@ import org.kodein.di.test.FixMethodOrder
 import org.kodein.di.test.MethodSorters
 import org.kodein.di.test.Person
 import kotlin.test.*
+import kotlin.time.Duration.Companion.seconds
+import kotlin.time.TestTimeSource
 
 @FixMethodOrder(MethodSorters.NAME_ASCENDING)
 class Tests_16_Multiton {
@@ -107,4 +110,148 @@ class Tests_16_Multiton {
         assertEquals("Laila", p3.name)
     }
 
+    @Test
+    fun test_03_IntMultiton() {
+        val di = DI.direct { bindMultiton { id: Int -> Person("Person $id") } }
+
+        val persons = (0 until 100).map { di.instance<Int, Person>(arg = it) }
+
+        persons.forEachIndexed { id, person ->
+            assertEquals("Person $id", person.name)
+            assertSame(person, di.instance<Int, Person>(arg = id))
+        }
+    }
+
+    @Test
+    fun test_04_LongMultiton() {
+        val di = DI.direct { bindMultiton { id: Long -> Person("Person $id") } }
+
+        val p1 = di.instance<Long, Person>(arg = 1L shl 40)
+        val p2 = di.instance<Long, Person>(arg = 1L)
+
+        assertNotSame(p1, p2)
+        assertSame(p1, di.instance<Long, Person>(arg = 1L shl 40))
+        assertSame(p2, di.instance<Long, Person>(arg = 1L))
+    }
+
+    @Test
+    fun test_05_IdentityMultiton() {
+        data class Id(val value: String)
+
+        val di = DI.direct {
+            bind<Person>() with multiton(identity = true) { id: Id -> Person(id.value) }
+        }
+
+        val id1 = Id("Salomon")
+        val id2 = Id("Salomon")
+
+        val p1 = di.instance<Id, Person>(arg = id1)
+        assertSame(p1, di.instance<Id, Person>(arg = id1))
+        assertNotSame(p1, di.instance<Id, Person>(arg = id2))
+    }
+
+    @Test
+    fun test_06_UnboundedMultitonIsClosedAndRecreated() {
+        val myScope = UnboundedScope()
+
+        val di = DI.direct {
+            bind<CloseableData>() with scoped(myScope).multiton { id: Int -> CloseableData("$id") }
+        }
+
+        val c1 = di.instance<Int, CloseableData>(arg = 1)
+        val c2 = di.instance<Int, CloseableData>(arg = 2)
+
+        myScope.close()
+        assertTrue(c1.closed)
+        assertTrue(c2.closed)
+
+        val c3 = di.instance<Int, CloseableData>(arg = 1)
+        assertNotSame(c1, c3)
+        assertFalse(c3.closed)
+        assertSame(c3, di.instance<Int, CloseableData>(arg = 1))
+    }
+
+    @Test
+    fun test_07_LruMultiton() {
+        val eviction = MultitonEviction.lru(maxSize = 2)
+        val di = DI.direct {
+            bind<CloseableData>() with multiton(eviction = eviction) { name: String -> CloseableData(name) }
+        }
+
+        val a = di.instance<String, CloseableData>(arg = "a")
+        val b = di.instance<String, CloseableData>(arg = "b")
+        assertSame(a, di.instance<String, CloseableData>(arg = "a"))
+
+        val c = di.instance<String, CloseableData>(arg = "c")
+        assertTrue(b.closed)
+        assertFalse(a.closed)
+        assertFalse(c.closed)
+        assertNotSame(b, di.instance<String, CloseableData>(arg = "b"))
+        assertTrue(a.closed)
+
+        assertEquals(1, eviction.hitCount)
+        assertEquals(4, eviction.missCount)
+        assertEquals(2, eviction.evictionCount)
+    }
+
+    @Test
+    fun test_08_LfuMultiton() {
+        val eviction = MultitonEviction.lfu(maxSize = 2)
+        val di = DI.direct {
+            bind<CloseableData>() with multiton(eviction = eviction) { name: String -> CloseableData(name) }
+        }
+
+        val a = di.instance<String, CloseableData>(arg = "a")
+        repeat(3) { di.instance<String, CloseableData>(arg = "a") }
+        val b = di.instance<String, CloseableData>(arg = "b")
+        di.instance<String, CloseableData>(arg = "c")
+
+        assertTrue(b.closed)
+        assertFalse(a.closed)
+        assertSame(a, di.instance<String, CloseableData>(arg = "a"))
+    }
+
+    @Test
+    fun test_09_TimeToIdleMultiton() {
+        val time = TestTimeSource()
+        val eviction = MultitonEviction.timeToIdle(10.seconds, timeSource = time)
+        val di = DI.direct {
+            bind<CloseableData>() with multiton(eviction = eviction) { name: String -> CloseableData(name) }
+        }
+
+        val a = di.instance<String, CloseableData>(arg = "a")
+        time += 5.seconds
+        val b = di.instance<String, CloseableData>(arg = "b")
+        time += 6.seconds
+
+        assertSame(b, di.instance<String, CloseableData>(arg = "b"))
+        assertTrue(a.closed)
+        assertFalse(b.closed)
+        assertNotSame(a, di.instance<String, CloseableData>(arg = "a"))
+    }
+
+    @Test
+    fun test_10_FailedCreationsAreNotKept() {
+        val eviction = MultitonEviction.lru(maxSize = 2)
+        var fail = true
+        val di = DI.direct {
+            bind<CloseableData>() with multiton(eviction = eviction) { name: String ->
+                if (fail && name.startsWith("fail")) error("Cannot create $name")
+                CloseableData(name)
+            }
+        }
+
+        repeat(10) { assertFailsWith<IllegalStateException> { di.instance<String, CloseableData>(arg = "fail $it") } }
+
+        val a = di.instance<String, CloseableData>(arg = "a")
+        val b = di.instance<String, CloseableData>(arg = "b")
+        assertFalse(a.closed)
+        assertFalse(b.closed)
+        assertEquals(0, eviction.evictionCount)
+
+        fail = false
+        assertEquals("fail 0", di.instance<String, CloseableData>(arg = "fail 0").name)
+        assertTrue(a.closed)
+        assertEquals(1, eviction.evictionCount)
+    }
 }
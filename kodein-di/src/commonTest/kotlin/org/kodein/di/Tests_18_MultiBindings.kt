@@ -510,4 +510,157 @@ class Tests_18_MultiBindings {
         val cached2 = multiton("BRYS")
         assertSame(cached1, cached2)  // Multiton caches per argument
     }
+
+    @Test
+    fun test_21_MultiSetOfSingletonsIsReused() {
+        val di = DI {
+            bindSet<IPerson> {
+                addInstance(Person("Romain"))
+                addSingleton { Person("Salomon") }
+            }
+        }
+
+        val persons1 = di.direct.instance<Set<IPerson>>()
+        val persons2 = di.direct.instance<Set<IPerson>>()
+
+        assertSame(persons1, persons2)
+        assertEquals(setOf<IPerson>(Person("Romain"), Person("Salomon")), persons1)
+        assertEquals(listOf("Romain", "Salomon"), persons1.map { it.name })
+    }
+
+    @Test
+    fun test_22_MultiSetOfProvidersIsDeduplicated() {
+        val di = DI {
+            bindSet<IPerson> {
+                addProvider { Person("Laila") }
+                addProvider { Person("Laila") }
+                addProvider { Person("Salomon") }
+            }
+        }
+
+        val persons1 = di.direct.instance<Set<IPerson>>()
+        val persons2 = di.direct.instance<Set<IPerson>>()
+
+        assertEquals(2, persons1.size)
+        assertEquals(listOf("Laila", "Salomon"), persons1.map { it.name })
+        assertEquals(persons1, persons2)
+        assertNotSame(persons1.first(), persons2.first())
+    }
+
+    @Test
+    fun test_23_MultiSetWithArgOfMultitonsIsReusedPerArgument() {
+        val di = DI {
+            bindArgSet<String, IPerson> {
+                addMultiton { lastName: String -> Person("Laila $lastName") }
+            }
+        }
+
+        val brys1 = di.direct.instance<String, Set<IPerson>>(arg = "BRYS")
+        val brys2 = di.direct.instance<String, Set<IPerson>>(arg = "BRYS")
+        val other = di.direct.instance<String, Set<IPerson>>(arg = "OTHER")
+
+        assertSame(brys1, brys2)
+        assertEquals(setOf<IPerson>(Person("Laila OTHER")), other)
+        assertSame(brys1.first(), di.direct.instance<String, Set<IPerson>>(arg = "BRYS").first())
+    }
+
+    @Test
+    fun test_24_MultiMapIsLazy() {
+        val created = ArrayList<String>()
+
+        val di = DI {
+            bindMap<String, IPerson> {
+                addSingleton("salomon") { created += "Salomon" ; Person("Salomon") }
+                addProvider("laila") { created += "Laila" ; Person("Laila") }
+                addInstance("romain", Person("Romain"))
+            }
+        }
+
+        val persons = di.direct.instance<Map<String, IPerson>>()
+
+        assertEquals(setOf("salomon", "laila", "romain"), persons.keys)
+        assertTrue("laila" in persons)
+        assertEquals(emptyList(), created)
+
+        assertEquals(Person("Salomon"), persons["salomon"])
+        assertEquals(listOf("Salomon"), created)
+        assertSame(persons["salomon"], di.direct.instance<Map<String, IPerson>>()["salomon"])
+        assertNotSame(persons["laila"], persons["laila"])
+        assertNull(persons["unknown"])
+
+        assertEquals(mapOf<String, IPerson>("salomon" to Person("Salomon"), "laila" to Person("Laila"), "romain" to Person("Romain")), persons)
+    }
+
+    @Test
+    fun test_25_MultiMapInBindMap() {
+        val di = DI {
+            bindMap<String, IPerson> {
+                addInstance("salomon", Person("Salomon"))
+            }
+            import(DI.Module("laila") {
+                inBindMap<String, IPerson> {
+                    addInstance("laila", Person("Laila"))
+                }
+            })
+        }
+
+        assertEquals(listOf("Salomon", "Laila"), di.direct.instance<Map<String, IPerson>>().values.map { it.name })
+
+        assertFailsWith<DI.OverridingException> {
+            DI {
+                bindMap<String, IPerson> {
+                    addInstance("salomon", Person("Salomon"))
+                    addInstance("salomon", Person("Laila"))
+                }
+            }
+        }
+    }
+
+    @Test
+    fun test_26_MultiListIsOrderedAndLazy() {
+        val created = ArrayList<String>()
+
+        val di = DI {
+            bindList<IPerson> {
+                addProvider(order = 10) { created += "Laila" ; Person("Laila") }
+                addSingleton(order = -1) { created += "Salomon" ; Person("Salomon") }
+                addInstance(instance = Person("Romain"))
+            }
+            inBindList<IPerson> {
+                addProvider(order = 10) { created += "Anna" ; Person("Anna") }
+            }
+        }
+
+        val persons = di.direct.instance<List<IPerson>>()
+
+        assertEquals(4, persons.size)
+        assertEquals(emptyList(), created)
+
+        assertEquals(Person("Romain"), persons[1])
+        assertEquals(emptyList(), created)
+
+        assertEquals(listOf("Salomon", "Romain", "Laila", "Anna"), persons.map { it.name })
+        assertEquals(listOf("Salomon", "Laila", "Anna"), created)
+        assertSame(persons[0], persons[0])
+        assertNotSame(persons[2], persons[2])
+    }
+
+    @Test
+    fun test_27_LargeMultiSetIsImmutableAndIndexed() {
+        val di = DI {
+            bindSet<IPerson> {
+                repeat(20) { i -> addSingleton { Person("Person ${i % 15}") } }
+            }
+        }
+
+        val persons1 = di.direct.instance<Set<IPerson>>()
+        val persons2 = di.direct.instance<Set<IPerson>>()
+
+        assertSame(persons1, persons2)
+        assertFalse(persons1 is MutableSet<*>)
+        assertEquals(15, persons1.size)
+        assertEquals((0 until 15).map { "Person $it" }, persons1.map { it.name })
+        assertTrue(Person("Person 14") in persons1)
+        assertFalse(Person("Salomon") in persons1)
+    }
 }
@@ -194,4 +194,111 @@ class Tests_24_Sub {
             }.direct
         }
     }
+
+    @Test fun test_08_LayeredSubDISeesParentBindings() {
+        data class Foo(val name: String)
+        data class Bar(val foo: Foo)
+
+        val root = DI {
+            bindProvider { Foo("rootFoo") }
+            bindSingleton { Bar(instance()) }
+        }
+
+        val sub = subDI(root, layered = true) {
+            bindProvider(tag = "sub") { Foo("subFoo") }
+        }
+
+        assertEquals("rootFoo", sub.direct.instance<Foo>().name)
+        assertEquals("subFoo", sub.direct.instance<Foo>(tag = "sub").name)
+        assertSame(root.direct.instance<Bar>(), sub.direct.instance<Bar>())
+        assertEquals(3, sub.container.tree.bindings.size)
+    }
+
+    @Test fun test_09_LayeredSubDIOverride() {
+        val root = DI {
+            bindSingleton { "Salomon" }
+        }
+
+        val sub = subDI(root, layered = true) {
+            bind<String>(overrides = true) with singleton { (overriddenInstance() as String) + " BRYS" }
+        }
+
+        assertEquals("Salomon BRYS", sub.direct.instance<String>())
+        assertEquals("Salomon", root.direct.instance<String>())
+
+        assertFailsWith(DI.OverridingException::class) {
+            subDI(root, layered = true) {
+                bindSingleton { "Laila" }
+            }.direct
+        }
+    }
+
+    @Test fun test_10_LayeredSubDICopy() {
+        data class Foo(val name: String)
+        data class Bar(val foo: Foo)
+
+        val root = DI {
+            bindProvider { Foo("rootFoo") }
+            bindSingleton { Bar(instance()) }
+        }
+
+        val sub = subDI(root, copy = Copy.All, layered = true) {
+            bindProvider(overrides = true) { Foo("subFoo") }
+        }
+
+        val subBar by sub.instance<Bar>()
+        val rootBar by root.instance<Bar>()
+
+        assertNotSame(rootBar, subBar)
+        assertEquals("rootFoo", rootBar.foo.name)
+        assertEquals("subFoo", subBar.foo.name)
+    }
+
+    @Test fun test_11_LayeredSubDIOfLayeredSubDI() {
+        val root = DI {
+            bindSingleton { "Salomon" }
+        }
+
+        val sub = subDI(root, layered = true) {
+            bindSingleton { 42 }
+        }
+
+        val subSub = subDI(sub, layered = true) {
+            bindSingleton(tag = "name") { "${instance<String>()} ${instance<Int>()}" }
+        }
+
+        assertEquals("Salomon 42", subSub.direct.instance<String>(tag = "name"))
+        assertSame(root.direct.instance<String>(), subSub.direct.instance<String>())
+        assertSame(sub.direct.instance<Int>(), subSub.direct.instance<Int>())
+    }
+
+    @Test fun test_12_LayeringMustComeFirst() {
+        val root = DI {
+            bindSingleton { "Salomon" }
+        }
+        val other = DI {
+            bindSingleton { 42 }
+        }
+
+        assertFailsWith<IllegalStateException> {
+            DI {
+                bindSingleton { 21.0 }
+                extendLayered(root)
+            }
+        }
+
+        assertFailsWith<IllegalStateException> {
+            DI {
+                extendLayered(root)
+                extendLayered(other)
+            }
+        }
+
+        assertFailsWith<IllegalStateException> {
+            DI {
+                extend(other)
+                extendLayered(root)
+            }
+        }
+    }
 }
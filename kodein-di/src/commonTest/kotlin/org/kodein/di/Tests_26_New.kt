@@ -188,4 +188,37 @@ internal class Tests_26_New {
         kotlin.test.assertEquals("provider", c1.y)
         kotlin.test.assertEquals("provider", c2.y)
     }
+
+    @Test
+    fun test_11_provider_of_resolves_each_construction() {
+        val di = DI.direct {
+            bindProviderOf(::A)
+            bindSingleton { "singleton" }
+            bindSingleton { 42 }
+            bindProviderOf(::C)
+        }
+
+        val provider = di.provider<C>()
+        val c1 = provider()
+        val c2 = provider()
+
+        assertNotSame(c1, c2)
+        assertNotSame(c1.a, c2.a)
+        assertSame(c1.y, c2.y)
+        kotlin.test.assertEquals(42, c2.x)
+    }
+
+    class Name(val value: String)
+    class Named(val name: Name)
+
+    @Test
+    fun test_12_provider_of_uses_each_context() {
+        val di = DI.direct {
+            bind<Name>() with contexted<String>().provider { Name(context) }
+            bindProviderOf(::Named)
+        }
+
+        kotlin.test.assertEquals("first", di.on("first").instance<Named>().name.value)
+        kotlin.test.assertEquals("second", di.on("second").instance<Named>().name.value)
+    }
 }
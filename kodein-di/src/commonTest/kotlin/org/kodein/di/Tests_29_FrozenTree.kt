@@ -0,0 +1,107 @@
+package org.kodein.di
+
+import org.kodein.di.bindings.Scope
+import org.kodein.di.bindings.ScopeRegistry
+import org.kodein.di.bindings.StandardScopeRegistry
+import org.kodein.di.test.*
+import kotlin.test.*
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+class Tests_29_FrozenTree {
+
+    @Test
+    fun test_00_ExactLookup() {
+        val di = DI {
+            freezeTree = true
+            bind<String>(tag = "name") with instance("Salomon")
+            bind<Person>() with singleton { Person(instance(tag = "name")) }
+        }
+
+        val p1: Person by di.instance()
+        val p2: Person by di.instance()
+
+        assertEquals("Salomon", p1.name)
+        assertSame(p1, p2)
+    }
+
+    @Test
+    fun test_01_SuperTypeLookup() {
+        val di = DI {
+            freezeTree = true
+            bind<FullName>() with provider { FullName("Salomon", "BRYS") }
+        }
+
+        repeat(2) {
+            val name: IName by di.instance()
+            assertEquals("Salomon", name.firstName)
+        }
+    }
+
+    @Test
+    fun test_02_ContextTranslatedLookup() {
+        data class Session(val id: String)
+        data class Request(val session: Session)
+
+        val sessionScope = object : Scope<Session> {
+            val registries = HashMap<String, ScopeRegistry>()
+            override fun getRegistry(context: Session) = registries.getOrPut(context.id, ::StandardScopeRegistry)
+        }
+
+        val di = DI {
+            freezeTree = true
+            bind<CloseableData>() with scoped(sessionScope).singleton { CloseableData() }
+            registerContextTranslator { r: Request -> r.session }
+        }
+
+        val session = Session("sid")
+
+        val c1: CloseableData by di.on(Request(session)).instance()
+        val c2: CloseableData by di.on(Request(session)).instance()
+        assertSame(c1, c2)
+        sessionScope.registries[session.id]!!.clear()
+        assertTrue(c1.closed)
+    }
+
+    @Test
+    fun test_03_OverriddenLookup() {
+        val di = DI {
+            freezeTree = true
+            bind<String>() with instance("Salomon")
+            bind<String>(overrides = true) with singleton { (overriddenInstance() as String) + " BRYS" }
+        }
+
+        repeat(2) {
+            assertEquals("Salomon BRYS", di.direct.instance<String>())
+        }
+    }
+
+    @Test
+    fun test_04_AmbiguousLookup() {
+        val di = DI {
+            freezeTree = true
+            bind<FullName>(tag = "a") with provider { FullName("Salomon", "BRYS") }
+            bind<FullInfos>(tag = "a") with provider { FullInfos("Salomon", "BRYS", 42) }
+        }
+
+        repeat(2) {
+            assertFailsWith<DI.NotFoundException> { di.direct.instance<IName>(tag = "a") }
+            assertNull(di.direct.instanceOrNull<IName>(tag = "b"))
+        }
+    }
+
+    @Test
+    fun test_05_Search() {
+        val di = DI {
+            freezeTree = true
+            bind<String>(tag = "foo") with provider { "String-foo" }
+            bind<String>(tag = "bar") with provider { "String-bar" }
+            bind<Int>(tag = "foo") with provider { 42 }
+        }
+
+        val bindings = di.container.tree.findAllBindings {
+            +tag("foo")
+        }
+
+        assertEquals(2, bindings.size)
+    }
+}
@@ -0,0 +1,68 @@
+package org.kodein.di
+
+import org.kodein.di.bindings.Scope
+import org.kodein.di.bindings.ScopeRegistry
+import org.kodein.di.bindings.StandardScopeRegistry
+import org.kodein.di.test.*
+import kotlin.test.*
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+class Tests_30_ResolvedFactory {
+
+    @Test
+    fun test_00_SingletonRetrievedFromAnyContext() {
+        val di = DI.direct {
+            bind<Person>() with singleton { Person("Salomon") }
+        }
+
+        val p1 = di.instance<Person>()
+        val p2 = di.instance<Person>()
+        val p3 = di.on("context").instance<Person>()
+
+        assertSame(p1, p2)
+        assertSame(p1, p3)
+    }
+
+    @Test
+    fun test_01_ProviderIsCalledEachTime() {
+        var count = 0
+        val di = DI.direct {
+            bind<Person>() with provider { Person("Salomon ${++count}") }
+        }
+
+        assertEquals("Salomon 1", di.instance<Person>().name)
+        assertEquals("Salomon 2", di.instance<Person>().name)
+    }
+
+    @Test
+    fun test_02_ContextedProviderUsesEachContext() {
+        val di = DI.direct {
+            bind<Person>() with contexted<String>().provider { Person(context) }
+        }
+
+        assertEquals("Salomon", di.on("Salomon").instance<Person>().name)
+        assertEquals("Laila", di.on("Laila").instance<Person>().name)
+    }
+
+    @Test
+    fun test_03_ScopedSingletonUsesEachRegistry() {
+        val scope = object : Scope<String> {
+            val registries = HashMap<String, ScopeRegistry>()
+            override fun getRegistry(context: String) = registries.getOrPut(context, ::StandardScopeRegistry)
+        }
+
+        val di = DI.direct {
+            bind<CloseableData>() with scoped(scope).singleton { CloseableData(context) }
+        }
+
+        val c1 = di.on("one").instance<CloseableData>()
+        assertSame(c1, di.on("one").instance<CloseableData>())
+
+        scope.registries.remove("one")!!.clear()
+        assertTrue(c1.closed)
+
+        val c2 = di.on("one").instance<CloseableData>()
+        assertNotSame(c1, c2)
+        assertFalse(c2.closed)
+    }
+}
@@ -0,0 +1,79 @@
+package org.kodein.di
+
+import org.kodein.di.test.*
+import kotlin.test.*
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+class Tests_32_Handle {
+
+    @Test
+    fun test_00_SingletonHandle() {
+        val di = DI.direct {
+            bind<Person>() with singleton { Person("Salomon") }
+        }
+
+        val handle = di.handle<Person>()
+
+        assertSame(di.instance<Person>(), handle.get())
+        assertSame(handle.get(), handle.get())
+    }
+
+    @Test
+    fun test_01_ProviderHandleCallsTheProviderEachTime() {
+        var count = 0
+        val di = DI.direct {
+            bind<Person>() with provider { Person("Salomon ${++count}") }
+        }
+
+        val handle = di.handle<Person>()
+
+        assertEquals("Salomon 1", handle.get().name)
+        assertEquals("Salomon 2", handle.get().name)
+    }
+
+    @Test
+    fun test_02_TaggedHandle() {
+        val di = DI {
+            bind<Person>() with provider { Person() }
+            bind<Person>(tag = "named") with provider { Person("Salomon") }
+        }
+
+        assertNull(di.handle<Person>().get().name)
+        assertEquals("Salomon", di.handle<Person>(tag = "named").get().name)
+    }
+
+    @Test
+    fun test_03_FactoryHandle() {
+        val di = DI.direct {
+            bind<Person>() with factory { name: String -> Person(name) }
+        }
+
+        val handle = di.factoryHandle<String, Person>()
+
+        assertEquals("Salomon", handle.get("Salomon").name)
+        assertEquals("Laila", handle.get("Laila").name)
+    }
+
+    @Test
+    fun test_04_ContextedHandle() {
+        val di = DI.direct {
+            bind<Person>() with contexted<String>().provider { Person(context) }
+        }
+
+        val handle = di.on("Salomon").handle<Person>()
+
+        assertEquals("Salomon", handle.get().name)
+        assertEquals("Laila", handle.get("Laila").name)
+        assertEquals("Salomon", handle.get().name)
+    }
+
+    @Test
+    fun test_05_HandleIsLazy() {
+        val di = DI.direct {}
+
+        val handle = di.handle<Person>()
+
+        assertFailsWith<DI.NotFoundException> { handle.get() }
+        assertEquals("Handle(bind<Person>)", handle.toString())
+    }
+}
@@ -0,0 +1,108 @@
+package org.kodein.di
+
+import org.kodein.di.bindings.ExternalSource
+import org.kodein.di.bindings.Scope
+import org.kodein.di.bindings.ScopeRegistry
+import org.kodein.di.bindings.StandardScopeRegistry
+import org.kodein.di.bindings.externalFactory
+import org.kodein.di.test.*
+import kotlin.test.*
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+class Tests_33_BindingMemo {
+
+    class Session(val id: String)
+    class Request(val session: Session)
+    class Holder(val data: CloseableData)
+
+    @Test
+    fun test_00_DependencyFactoryIsResolvedOnce() {
+        val di = DI.direct {
+            bind<Person>() with factory { name: String -> Person(name) }
+            bind<(String) -> Person>() with provider { factory<String, Person>() }
+        }
+
+        val provider = di.on("context").provider<(String) -> Person>()
+
+        assertSame(provider(), provider())
+        assertEquals("Salomon", provider().invoke("Salomon").name)
+    }
+
+    @Test
+    fun test_01_DependenciesKeepTheirBindingSemantics() {
+        var count = 0
+        val di = DI.direct {
+            bind<Person>(tag = "new") with provider { Person("Person ${++count}") }
+            bind<Person>(tag = "same") with singleton { Person("Salomon") }
+            bind<List<Person>>() with provider { listOf(instance(tag = "new"), instance(tag = "same")) }
+        }
+
+        val provider = di.on("context").provider<List<Person>>()
+
+        val (new1, same1) = provider()
+        val (new2, same2) = provider()
+
+        assertEquals("Person 1", new1.name)
+        assertEquals("Person 2", new2.name)
+        assertSame(same1, same2)
+    }
+
+    @Test
+    fun test_02_ExternalSourcesAreQueriedEachTime() {
+        var queries = 0
+        val di = DI.direct {
+            bind<List<Person>>() with provider { listOf(instance(tag = "external")) }
+            externalSources += ExternalSource { key ->
+                if (key.tag == "external") {
+                    ++queries
+                    externalFactory { Person("External") }
+                } else null
+            }
+        }
+
+        val provider = di.provider<List<Person>>()
+        provider()
+        provider()
+
+        assertEquals(2, queries)
+    }
+
+    @Test
+    fun test_03_TranslatedDependenciesAreResolvedEachTime() {
+        val sessionScope = object : Scope<Session> {
+            val registries = HashMap<String, ScopeRegistry>()
+            override fun getRegistry(context: Session) = registries.getOrPut(context.id, ::StandardScopeRegistry)
+        }
+
+        val di = DI.direct {
+            bind<CloseableData>() with scoped(sessionScope).singleton { CloseableData() }
+            bind<Holder>() with contexted<Request>().provider { Holder(instance()) }
+            registerContextTranslator { r: Request -> r.session }
+        }
+
+        val provider = di.on(Request(Session("sid"))).provider<Holder>()
+
+        val data = provider().data
+        assertSame(data, provider().data)
+
+        sessionScope.registries.remove("sid")!!.clear()
+        assertTrue(data.closed)
+        assertNotSame(data, provider().data)
+    }
+
+    @Test
+    fun test_04_FailedDependencyIsLookedUpOnce() {
+        var queries = 0
+        val di = DI.direct {
+            bind<List<Person>>() with provider { listOf(instance(tag = "missing")) }
+            externalSources += ExternalSource { key ->
+                if (key.tag == "missing") ++queries
+                null
+            }
+        }
+
+        assertFailsWith<DI.NotFoundException> { di.on("context").instance<List<Person>>() }
+
+        assertEquals(1, queries)
+    }
+}
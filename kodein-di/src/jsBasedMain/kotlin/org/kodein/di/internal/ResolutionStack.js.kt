@@ -0,0 +1,5 @@
+package org.kodein.di.internal
+
+private val threadResolutionStack = ResolutionStack()
+
+internal actual fun resolutionStack(): ResolutionStack = threadResolutionStack
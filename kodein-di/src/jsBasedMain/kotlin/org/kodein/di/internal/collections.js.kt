@@ -1,5 +1,29 @@
+@file:OptIn(ExperimentalWasmJsInterop::class)
+
 package org.kodein.di.internal
 
 internal actual fun <K, V> newConcurrentMap(): MutableMap<K, V> = HashMap()
 internal actual fun <T> newLinkedList(): MutableList<T> = ArrayList()
 internal actual fun <T> newLinkedList(c: Collection<T>): MutableList<T> = ArrayList(c)
+
+// There is no identity hash code in JS: each object is given an id the first time it is hashed, kept in a WeakMap so that it does not retain the object.
+private fun newIdentityIds(): JsAny = js("({ map: new WeakMap(), next: 0 })")
+
+private fun identityId(ids: JsAny, key: JsAny): Int = js("""{
+    if (key === null || (typeof key !== 'object' && typeof key !== 'function')) return 0;
+    var id = ids.map.get(key);
+    if (id === undefined) {
+        do { ids.next = (ids.next + 0x61c88647) | 0; } while (ids.next === 0);
+        id = ids.next;
+        ids.map.set(key, id);
+    }
+    return id;
+}""")
+
+private val identityIds: JsAny = newIdentityIds()
+
+// Primitives (e.g. JS numbers & strings) cannot be WeakMap keys, but they are identical when they are equal.
+internal actual fun identityHashCode(value: Any?): Int {
+    if (value == null) return 0
+    return identityId(identityIds, value.toJsReference()).takeIf { it != 0 } ?: value.hashCode()
+}
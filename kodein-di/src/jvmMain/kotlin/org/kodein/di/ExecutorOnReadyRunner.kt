@@ -0,0 +1,32 @@
+package org.kodein.di
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
+import java.util.concurrent.Executor
+import java.util.concurrent.ForkJoinPool
+
+/**
+ * [OnReadyRunner] that runs all independent callbacks concurrently on the given [executor].
+ *
+ * Eager singletons whose creation does not depend on each other are therefore created in parallel,
+ * while an eager singleton that needs another one being created waits for it.
+ *
+ * @property executor The executor on which the callbacks run.
+ */
+public class ExecutorOnReadyRunner(private val executor: Executor = ForkJoinPool.commonPool()) : OnReadyRunner {
+
+    override fun runAll(callbacks: List<() -> Unit>) {
+        val futures = callbacks.map { cb -> CompletableFuture.runAsync({ cb() }, executor) }
+        var failure: Throwable? = null
+        futures.forEach {
+            try {
+                it.join()
+            } catch (ex: CompletionException) {
+                val cause = ex.cause ?: ex
+                val first = failure
+                if (first == null) failure = cause else first.addSuppressed(cause)
+            }
+        }
+        failure?.let { throw it }
+    }
+}
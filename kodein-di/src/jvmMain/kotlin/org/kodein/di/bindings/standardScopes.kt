@@ -1,22 +1,21 @@
 package org.kodein.di.bindings
 
-import java.util.*
+import org.kodein.di.internal.WeakIdentityMap
 
 /**
  * Scope that map [scope registries][ScopeRegistry] associated to weak contexts.
  *
  * In essence, the context is weak, and for a given context, its registry will be GC'd when it is itself GC'd.
+ * Contexts are compared by identity, and retrieving the registry of a context that already has one does not lock.
  */
 public open class WeakContextScope<in C>(public val newRepo: () -> ScopeRegistry = { StandardScopeRegistry() }) : Scope<C> {
 
-    private val map = WeakHashMap<C, ScopeRegistry>()
+    private val map = WeakIdentityMap<Any, ScopeRegistry>()
 
-    override fun getRegistry(context: C): ScopeRegistry {
-        map[context]?.let { return it }
-        synchronized(map) {
-            return map.getOrPut(context) { newRepo() }
-        }
-    }
+    override fun getRegistry(context: C): ScopeRegistry = map.getOrPut(context ?: NullContext) { newRepo() }
+
+    /** Weak maps do not support null keys. */
+    private object NullContext
 
     public companion object Of : WeakContextScope<Any>() {
         @Suppress("UNCHECKED_CAST")
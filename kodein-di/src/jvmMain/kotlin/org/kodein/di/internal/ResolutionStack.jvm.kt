@@ -0,0 +1,5 @@
+package org.kodein.di.internal
+
+private val resolutionStacks = ThreadLocal.withInitial(::ResolutionStack)
+
+internal actual fun resolutionStack(): ResolutionStack = resolutionStacks.get()
@@ -0,0 +1,163 @@
+package org.kodein.di.internal
+
+import java.lang.ref.ReferenceQueue
+import java.lang.ref.WeakReference
+
+/**
+ * Concurrent map whose keys are weakly referenced and compared by identity.
+ *
+ * The map is split in segments, selected by the high bits of the key identity hash, each being a chained hash table guarded by its own lock.
+ * Reads never lock: a chain, once published, is never mutated (removing an entry copies the entries that precede it),
+ * so a reader either sees an entry or misses it and falls back to the locked path.
+ *
+ * All entries are registered in a single reference queue: entries whose key has been collected are expunged by any thread that accesses the map,
+ * which only costs a volatile read when there is nothing to expunge.
+ *
+ * @param concurrency The minimum number of segments, rounded up to a power of two.
+ */
+internal class WeakIdentityMap<K : Any, V : Any>(concurrency: Int = DEFAULT_CONCURRENCY) {
+
+    private class Entry<K : Any, V : Any>(
+        key: K,
+        val hash: Int,
+        val value: V,
+        val next: Entry<K, V>?,
+        queue: ReferenceQueue<in K>,
+    ) : WeakReference<K>(key, queue)
+
+    private inner class Segment {
+        @Volatile
+        var table: Array<Entry<K, V>?> = arrayOfNulls(INITIAL_CAPACITY)
+
+        /** Guarded by this segment. */
+        var count = 0
+
+        fun get(key: K, hash: Int): V? {
+            val table = table
+            var entry = table[hash and (table.size - 1)]
+            while (entry != null) {
+                if (entry.hash == hash && entry.get() === key) return entry.value
+                entry = entry.next
+            }
+            return null
+        }
+
+        fun getOrPut(key: K, hash: Int, create: () -> V): V = synchronized(this) {
+            get(key, hash)?.let { return@synchronized it }
+            val value = create()
+            var table = table
+            if (count + 1 > table.size * 3 / 4) table = grow(table)
+            val index = hash and (table.size - 1)
+            table[index] = Entry(key, hash, value, table[index], queue)
+            ++count
+            // Re-publishes the table, so that readers see the new entry.
+            this.table = table
+            value
+        }
+
+        /** Called while holding the segment lock. */
+        private fun grow(table: Array<Entry<K, V>?>): Array<Entry<K, V>?> {
+            val grown = arrayOfNulls<Entry<K, V>>(table.size * 2)
+            val mask = grown.size - 1
+            for (head in table) {
+                var entry = head
+                while (entry != null) {
+                    val key = entry.get()
+                    if (key != null) {
+                        val index = entry.hash and mask
+                        grown[index] = Entry(key, entry.hash, entry.value, grown[index], queue)
+                    } else {
+                        --count
+                    }
+                    entry = entry.next
+                }
+            }
+            return grown
+        }
+
+        /**
+         * Removes a stale entry, if it still is in the table.
+         * The entries that precede it in its chain are copied, except those whose key has been collected too.
+         */
+        fun expunge(stale: Entry<K, V>) = synchronized(this) {
+            val table = table
+            val index = stale.hash and (table.size - 1)
+            val head = table[index]
+            var entry = head
+            while (entry != null && entry !== stale) entry = entry.next
+            if (entry == null) return@synchronized
+
+            var chain = stale.next
+            --count
+            entry = head
+            while (entry !== stale) {
+                val key = entry!!.get()
+                if (key != null) chain = Entry(key, entry.hash, entry.value, chain, queue)
+                else --count
+                entry = entry.next
+            }
+            table[index] = chain
+            this.table = table
+        }
+
+        fun size(): Int = synchronized(this) { count }
+    }
+
+    private val queue = ReferenceQueue<K>()
+
+    private val segments: Array<Segment>
+    private val shift: Int
+
+    init {
+        var size = 1
+        var bits = 0
+        while (size < concurrency) {
+            size = size shl 1
+            ++bits
+        }
+        shift = 32 - bits
+        segments = Array(size) { Segment() }
+    }
+
+    private fun hashOf(key: K) = System.identityHashCode(key).let { it xor (it ushr 16) }
+
+    // The low bits select a slot in a segment table, so the segment is selected by the high bits.
+    private fun segmentFor(hash: Int) = if (segments.size == 1) segments[0] else segments[(hash * -0x61c88647) ushr shift]
+
+    @Suppress("UNCHECKED_CAST")
+    private fun expungeStaleEntries() {
+        while (true) {
+            val stale = queue.poll() as Entry<K, V>? ?: return
+            segmentFor(stale.hash).expunge(stale)
+        }
+    }
+
+    operator fun get(key: K): V? {
+        expungeStaleEntries()
+        val hash = hashOf(key)
+        return segmentFor(hash).get(key, hash)
+    }
+
+    /**
+     * @return The value associated to [key], or the value returned by [create], which is called at most once per key, while holding the segment lock.
+     */
+    fun getOrPut(key: K, create: () -> V): V {
+        expungeStaleEntries()
+        val hash = hashOf(key)
+        val segment = segmentFor(hash)
+        return segment.get(key, hash) ?: segment.getOrPut(key, hash, create)
+    }
+
+    /**
+     * The number of entries, which may include entries whose key has been collected but that have not been expunged yet.
+     */
+    val size: Int get() {
+        expungeStaleEntries()
+        return segments.sumOf { it.size() }
+    }
+
+    private companion object {
+        const val INITIAL_CAPACITY = 8
+        val DEFAULT_CONCURRENCY = Runtime.getRuntime().availableProcessors() * 4
+    }
+}
@@ -4,6 +4,11 @@ import org.kodein.di.bindings.RefMaker
 import org.kodein.di.bindings.Reference
 import java.lang.ref.SoftReference
 import java.lang.ref.WeakReference
+import java.util.concurrent.Executor
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.atomic.AtomicBoolean
+import kotlin.time.Duration
 
 /**
  * Thread Local Reference Maker.
@@ -53,3 +58,63 @@ public object weakReference : RefMaker {
         return Reference(value) { weakRef.get() }
     }
 }
+
+/**
+ * Refreshing Reference Maker.
+ *
+ * Use this with `singleton(ref = ...)` or `multiton(ref = ...)` to bind a singleton or multiton whose instance is periodically re-created in the background.
+ *
+ * Once [interval] has elapsed since the instance was created, the next retrieval starts a refresh on the [executor] and still returns the current instance.
+ * Only one refresh runs at a time, and retrievals never wait for it: they return the stale instance until the refresh is done.
+ * If a refresh fails, its exception is caught (it never reaches the [executor]), the stale instance is kept, and the refresh is retried after another [interval].
+ * A replaced instance is not closed, as it may still be in use.
+ *
+ * @param interval How long an instance is used before it is refreshed.
+ * @param executor The executor that runs the refreshes.
+ * @return A reference maker that refreshes instances.
+ */
+public fun refreshAfter(interval: Duration, executor: Executor = ForkJoinPool.commonPool()): RefMaker = RefreshingReferenceMaker(interval, executor)
+
+private class RefreshingReferenceMaker(private val interval: Duration, private val executor: Executor) : RefMaker {
+    init {
+        require(interval.isPositive()) { "interval must be positive" }
+    }
+
+    private val intervalNanos = interval.inWholeNanoseconds
+
+    private inner class Holder<T : Any>(@Volatile var value: T, private val creator: () -> T) {
+        @Volatile
+        private var refreshAt = System.nanoTime() + intervalNanos
+
+        private val refreshing = AtomicBoolean(false)
+
+        private fun refresh() {
+            try {
+                value = creator()
+            } catch (_: Exception) {
+                // Keeps the stale value until the next attempt.
+            } finally {
+                refreshAt = System.nanoTime() + intervalNanos
+                refreshing.set(false)
+            }
+        }
+
+        fun get(): T {
+            if (System.nanoTime() - refreshAt >= 0 && refreshing.compareAndSet(false, true)) {
+                try {
+                    executor.execute(::refresh)
+                } catch (e: RejectedExecutionException) {
+                    refreshing.set(false)
+                }
+            }
+            return value
+        }
+    }
+
+    override fun <T : Any> make(creator: () -> T): Reference<T> {
+        val holder = Holder(creator(), creator)
+        return Reference(holder.value, holder::get)
+    }
+
+    override fun toString(): String = "refreshAfter($interval)"
+}
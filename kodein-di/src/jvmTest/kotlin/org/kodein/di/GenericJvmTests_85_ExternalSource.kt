@@ -1,10 +1,12 @@
 package org.kodein.di
 
 import org.kodein.di.bindings.ExternalSource
+import org.kodein.di.bindings.IndexedExternalSource
 import org.kodein.di.bindings.externalFactory
 import org.kodein.di.test.FixMethodOrder
 import org.kodein.di.test.MethodSorters
 import org.kodein.di.test.Person
+import org.kodein.type.generic
 import org.kodein.type.jvmType
 import kotlin.test.*
 
@@ -47,4 +49,75 @@ class GenericJvmTests_85_ExternalSource {
         assertEquals(kodein.instanceOrNull<Person>(), kodein.instanceOrNull())
     }
 
+    @Test
+    fun test_01_StaticExternalSourceMissesAreRemembered() {
+        var queries = 0
+        val kodein = DI.direct {
+            externalSources += ExternalSource(dynamic = false) { key ->
+                ++queries
+                if (key.tag == "her") externalFactory { Person("Laila") } else null
+            }
+        }
+
+        assertNull(kodein.instanceOrNull<Person>(tag = "no-one"))
+        assertNull(kodein.instanceOrNull<Person>(tag = "no-one"))
+        assertEquals(1, queries)
+
+        assertEquals("Laila", kodein.instance<Person>(tag = "her").name)
+        assertEquals("Laila", kodein.instance<Person>(tag = "her").name)
+        assertEquals(3, queries)
+    }
+
+    @Test
+    fun test_02_DynamicExternalSourceIsQueriedOnEachMiss() {
+        var enabled = false
+        var queries = 0
+        val kodein = DI.direct {
+            externalSources += ExternalSource { key ->
+                ++queries
+                if (enabled && key.tag == "her") externalFactory { Person("Laila") } else null
+            }
+        }
+
+        assertNull(kodein.instanceOrNull<Person>(tag = "her"))
+        enabled = true
+        assertEquals("Laila", kodein.instanceOrNull<Person>(tag = "her")?.name)
+        assertEquals(2, queries)
+    }
+
+    @Test
+    fun test_03_IndexedExternalSourceIsOnlyQueriedForItsTypes() {
+        var queries = 0
+        val kodein = DI.direct {
+            externalSources += IndexedExternalSource(types = listOf(generic<Person>()), tags = { it != "no-one" }) { _ ->
+                ++queries
+                externalFactory { Person("Laila") }
+            }
+        }
+
+        assertNull(kodein.instanceOrNull<String>())
+        assertNull(kodein.instanceOrNull<Person>(tag = "no-one"))
+        assertEquals(0, queries)
+
+        assertEquals("Laila", kodein.instance<Person>().name)
+        assertEquals(1, queries)
+    }
+
+    @Test
+    fun test_04_CacheableExternalSourceIsQueriedOncePerKey() {
+        var queries = 0
+        val kodein = DI.direct {
+            externalSources += IndexedExternalSource(types = listOf(generic<Person>()), cacheable = true) { key ->
+                ++queries
+                val name = key.tag as String
+                externalFactory { Person(name) }
+            }
+        }
+
+        assertEquals("Laila", kodein.instance<Person>(tag = "Laila").name)
+        assertEquals("Laila", kodein.instance<Person>(tag = "Laila").name)
+        assertEquals("Salomon", kodein.instanceOrNull<Person>(tag = "Salomon")?.name)
+        assertEquals(2, queries)
+    }
+
 }
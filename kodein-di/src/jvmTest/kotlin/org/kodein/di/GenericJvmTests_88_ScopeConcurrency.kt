@@ -0,0 +1,90 @@
+package org.kodein.di
+
+import org.kodein.di.test.FixMethodOrder
+import org.kodein.di.test.MethodSorters
+import org.kodein.di.test.Person
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicInteger
+import kotlin.concurrent.thread
+import kotlin.test.*
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+class GenericJvmTests_88_ScopeConcurrency {
+
+    @Test
+    fun test_00_IndependentSingletonsAreCreatedConcurrently() {
+        val slowStarted = CountDownLatch(1)
+        val fastCreated = CountDownLatch(1)
+        val fastWasBlocked = AtomicBoolean(false)
+
+        val di = DI {
+            bind<Person>(tag = "slow") with singleton {
+                slowStarted.countDown()
+                if (!fastCreated.await(5, TimeUnit.SECONDS)) fastWasBlocked.set(true)
+                Person("slow")
+            }
+            bind<Person>(tag = "fast") with singleton { Person("fast") }
+        }
+
+        val t = thread { di.direct.instance<Person>(tag = "slow") }
+
+        assertTrue(slowStarted.await(5, TimeUnit.SECONDS))
+        assertEquals("fast", di.direct.instance<Person>(tag = "fast").name)
+        fastCreated.countDown()
+        t.join()
+
+        assertFalse(fastWasBlocked.get())
+        assertEquals("slow", di.direct.instance<Person>(tag = "slow").name)
+    }
+
+    @Test
+    fun test_01_SingletonIsCreatedOnce() {
+        val count = AtomicInteger()
+        val di = DI {
+            bind<Person>() with singleton {
+                count.incrementAndGet()
+                Thread.sleep(10)
+                Person()
+            }
+        }
+
+        val executor = Executors.newFixedThreadPool(8)
+        val start = CountDownLatch(1)
+        val futures = (1..8).map { executor.submit<Person> { start.await() ; di.direct.instance() } }
+        start.countDown()
+        val persons = futures.map { it.get(5, TimeUnit.SECONDS) }
+        executor.shutdown()
+
+        assertEquals(1, count.get())
+        persons.forEach { assertSame(persons.first(), it) }
+    }
+
+    @Test
+    fun test_02_MultitonArgumentsAreCreatedConcurrently() {
+        val firstStarted = CountDownLatch(1)
+        val secondCreated = CountDownLatch(1)
+        val secondWasBlocked = AtomicBoolean(false)
+
+        val di = DI {
+            bind<Person>() with multiton { name: String ->
+                if (name == "first") {
+                    firstStarted.countDown()
+                    if (!secondCreated.await(5, TimeUnit.SECONDS)) secondWasBlocked.set(true)
+                }
+                Person(name)
+            }
+        }
+
+        val t = thread { di.direct.instance<String, Person>(arg = "first") }
+
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS))
+        assertEquals("second", di.direct.instance<String, Person>(arg = "second").name)
+        secondCreated.countDown()
+        t.join()
+
+        assertFalse(secondWasBlocked.get())
+    }
+}
@@ -0,0 +1,110 @@
+package org.kodein.di
+
+import org.kodein.di.test.A
+import org.kodein.di.test.B
+import org.kodein.di.test.C
+import org.kodein.di.test.FixMethodOrder
+import org.kodein.di.test.MethodSorters
+import org.kodein.di.test.Person
+import java.util.concurrent.CyclicBarrier
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import kotlin.test.*
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+class GenericJvmTests_89_ParallelOnReady {
+
+    private val executor = Executors.newFixedThreadPool(4)
+
+    @AfterTest
+    fun tearDown() {
+        executor.shutdown()
+    }
+
+    @Test
+    fun test_00_IndependentEagerSingletonsAreCreatedConcurrently() {
+        val barrier = CyclicBarrier(2)
+
+        val di = DI {
+            onReadyRunner = ExecutorOnReadyRunner(executor)
+            bind<Person>(tag = "first") with eagerSingleton { barrier.await(5, TimeUnit.SECONDS) ; Person("first") }
+            bind<Person>(tag = "second") with eagerSingleton { barrier.await(5, TimeUnit.SECONDS) ; Person("second") }
+        }
+
+        assertEquals("first", di.direct.instance<Person>(tag = "first").name)
+        assertEquals("second", di.direct.instance<Person>(tag = "second").name)
+    }
+
+    @Test
+    fun test_01_DependentEagerSingletonsAreCreatedOnce() {
+        val count = AtomicInteger()
+
+        val di = DI {
+            onReadyRunner = ExecutorOnReadyRunner(executor)
+            bind<A>() with eagerSingleton { count.incrementAndGet() ; A(instance()) }
+            bind<B>() with eagerSingleton { count.incrementAndGet() ; B(instance()) }
+            bind<C>() with eagerSingleton { count.incrementAndGet() ; C(null) }
+        }
+
+        assertEquals(3, count.get())
+        val a = di.direct.instance<A>()
+        assertSame(di.direct.instance<B>(), a.b)
+        assertSame(di.direct.instance<C>(), a.b?.c)
+    }
+
+    @Test
+    fun test_02_DependentCallbacksRunAfterIndependentOnes() {
+        val created = AtomicInteger()
+        var seen = -1
+
+        DI {
+            onReadyRunner = ExecutorOnReadyRunner(executor)
+            onReady { seen = created.get() }
+            bind<Person>(tag = "first") with eagerSingleton { created.incrementAndGet() ; Person("first") }
+            bind<Person>(tag = "second") with eagerSingleton { created.incrementAndGet() ; Person("second") }
+        }
+
+        assertEquals(2, seen)
+    }
+
+    @Test
+    fun test_03_FailureIsRethrown() {
+        val ex = assertFailsWith<IllegalStateException> {
+            DI {
+                onReadyRunner = ExecutorOnReadyRunner(executor)
+                bind<Person>() with eagerSingleton { error("Cannot create person") }
+            }
+        }
+        assertEquals("Cannot create person", ex.message)
+    }
+
+    @Test
+    fun test_04_SequentialRunner() {
+        val order = ArrayList<String>()
+
+        DI {
+            onReadyRunner = OnReadyRunner.Sequential
+            onReady { order += "callback" }
+            bind<Person>(tag = "first") with eagerSingleton { order += "first" ; Person("first") }
+            onReady(independent = true) { order += "independent" }
+        }
+
+        assertEquals(listOf("first", "independent", "callback"), order)
+    }
+
+    @Test
+    fun test_05_SameCallbackRegisteredWithDifferentFlags() {
+        val order = ArrayList<String>()
+        val callback: DirectDI.() -> Unit = { order += "callback" }
+
+        DI {
+            onReadyRunner = OnReadyRunner.Sequential
+            onReady(independent = true, callback)
+            onReady { order += "other" }
+            onReady(callback)
+        }
+
+        assertEquals(listOf("callback", "other", "callback"), order)
+    }
+}
@@ -0,0 +1,85 @@
+package org.kodein.di
+
+import org.kodein.di.test.FixMethodOrder
+import org.kodein.di.test.MethodSorters
+import org.kodein.di.test.Person
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicReference
+import kotlin.concurrent.thread
+import kotlin.test.*
+import kotlin.time.Duration.Companion.milliseconds
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+class GenericJvmTests_90_RefreshReference {
+
+    @Test
+    fun test_00_StaleValueIsServedWhileRefreshing() {
+        val count = AtomicInteger()
+        val refreshStarted = CountDownLatch(1)
+        val refreshAllowed = CountDownLatch(1)
+        val executor = Executor { task -> thread { task.run() } }
+
+        val di = DI.direct {
+            bindSingleton(ref = refreshAfter(1.milliseconds, executor)) {
+                val n = count.incrementAndGet()
+                if (n > 1) {
+                    refreshStarted.countDown()
+                    refreshAllowed.await(5, TimeUnit.SECONDS)
+                }
+                Person("Salomon $n")
+            }
+        }
+
+        assertEquals("Salomon 1", di.instance<Person>().name)
+        Thread.sleep(5)
+
+        assertEquals("Salomon 1", di.instance<Person>().name)
+        assertTrue(refreshStarted.await(5, TimeUnit.SECONDS))
+        assertEquals("Salomon 1", di.instance<Person>().name)
+        assertEquals(2, count.get())
+
+        refreshAllowed.countDown()
+        val deadline = System.currentTimeMillis() + 5_000
+        while (di.instance<Person>().name == "Salomon 1" && System.currentTimeMillis() < deadline) Thread.sleep(1)
+        assertNotEquals("Salomon 1", di.instance<Person>().name)
+    }
+
+    @Test
+    fun test_01_FailedRefreshKeepsStaleValue() {
+        val count = AtomicInteger()
+        val refreshed = CountDownLatch(1)
+        val escaped = AtomicReference<Throwable>()
+        val executor = Executor { task ->
+            try {
+                task.run()
+            } catch (e: Throwable) {
+                escaped.set(e)
+            } finally {
+                refreshed.countDown()
+            }
+        }
+
+        val di = DI.direct {
+            bindSingleton(ref = refreshAfter(1.milliseconds, executor)) {
+                if (count.incrementAndGet() > 1) error("Cannot refresh")
+                Person("Salomon")
+            }
+        }
+
+        assertEquals("Salomon", di.instance<Person>().name)
+        Thread.sleep(5)
+        assertEquals("Salomon", di.instance<Person>().name)
+        assertTrue(refreshed.await(5, TimeUnit.SECONDS))
+        assertNull(escaped.get())
+        assertEquals("Salomon", di.instance<Person>().name)
+
+        // The failed refresh is retried after another interval.
+        Thread.sleep(5)
+        assertEquals("Salomon", di.instance<Person>().name)
+        assertTrue(count.get() >= 3)
+        assertNull(escaped.get())
+    }
+}
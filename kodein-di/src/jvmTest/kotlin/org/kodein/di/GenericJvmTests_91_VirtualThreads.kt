@@ -0,0 +1,90 @@
+package org.kodein.di
+
+import org.junit.Assume.assumeTrue
+import org.kodein.di.test.FixMethodOrder
+import org.kodein.di.test.MethodSorters
+import org.kodein.di.test.Person
+import java.util.concurrent.Callable
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import kotlin.test.*
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+class GenericJvmTests_91_VirtualThreads {
+
+    private var _executor: ExecutorService? = null
+
+    /** Virtual threads are only available since JDK 21: on older JDKs, the tests that need them are reported as skipped. */
+    private val executor: ExecutorService get() {
+        _executor?.let { return it }
+        val executor = try {
+            Executors::class.java.getMethod("newVirtualThreadPerTaskExecutor").invoke(null) as ExecutorService
+        } catch (e: NoSuchMethodException) {
+            null
+        }
+        assumeTrue("Virtual threads need JDK 21 or later (running ${System.getProperty("java.version")})", executor != null)
+        return executor!!.also { _executor = it }
+    }
+
+    @AfterTest
+    fun tearDown() {
+        _executor?.shutdownNow()
+    }
+
+    private fun <T> ExecutorService.runAll(count: Int, task: (Int) -> T): List<T> =
+        invokeAll((0 until count).map { index -> Callable { task(index) } }, 30, TimeUnit.SECONDS).map { it.get() }
+
+    @Test
+    fun test_00_SingletonUnderContention() {
+        val count = AtomicInteger()
+
+        val di = DI.direct {
+            bindSingleton { count.incrementAndGet() ; Thread.sleep(20) ; Person("Salomon") }
+        }
+
+        val persons = executor.runAll(5_000) { di.instance<Person>() }
+
+        assertEquals(1, count.get())
+        assertTrue(persons.all { it === persons.first() })
+    }
+
+    @Test
+    fun test_01_MultitonUnderContention() {
+        val count = AtomicInteger()
+
+        val di = DI.direct {
+            bindMultiton { id: Int -> count.incrementAndGet() ; Thread.sleep(5) ; Person("Person $id") }
+        }
+
+        val persons = executor.runAll(5_000) { di.instance<Int, Person>(arg = it % 100) }
+
+        assertEquals(100, count.get())
+        assertEquals(100, persons.toSet().size)
+        assertTrue(persons.groupBy { it.name }.values.all { same -> same.all { it === same.first() } })
+    }
+
+    @Test
+    fun test_02_BlockingCreatorsDoNotPinCarrierThreads() {
+        val singletons = Runtime.getRuntime().availableProcessors() * 8
+        val started = CountDownLatch(singletons)
+
+        // Each creator blocks until all of them have started: if a blocked creator pinned its carrier thread,
+        // only as many creators as there are carrier threads could start, and none would ever complete.
+        val di = DI.direct {
+            repeat(singletons) { index ->
+                bindSingleton(tag = index) {
+                    started.countDown()
+                    check(started.await(30, TimeUnit.SECONDS)) { "Blocked creators pinned their carrier threads" }
+                    Person("Person $index")
+                }
+            }
+        }
+
+        val persons = executor.runAll(singletons) { di.instance<Person>(tag = it) }
+
+        assertEquals((0 until singletons).map { "Person $it" }, persons.map { it.name })
+    }
+}
@@ -0,0 +1,63 @@
+package org.kodein.di
+
+import org.kodein.di.bindings.WeakContextScope
+import org.kodein.di.internal.WeakIdentityMap
+import org.kodein.di.test.FixMethodOrder
+import org.kodein.di.test.MethodSorters
+import org.kodein.di.test.Person
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import kotlin.test.*
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+class GenericJvmTests_92_WeakContextScope {
+
+    @Test
+    fun test_00_ContextsAreComparedByIdentity() {
+        val scope = WeakContextScope<Person>()
+        val di = DI.direct { bind<Any> { scoped(scope).singleton { Any() } } }
+
+        val salomon = Person("Salomon")
+        val other = Person("Salomon")
+
+        assertSame(di.on(salomon).instance<Any>(), di.on(salomon).instance<Any>())
+        assertNotSame(di.on(salomon).instance<Any>(), di.on(other).instance<Any>())
+    }
+
+    @Test
+    fun test_01_CollectedContextsAreExpunged() {
+        val map = WeakIdentityMap<Any, String>(concurrency = 4)
+        val kept = List(100) { Any() }
+        kept.forEachIndexed { index, key -> map.getOrPut(key) { "kept $index" } }
+        repeat(1_000) { index -> map.getOrPut(Any()) { "lost $index" } }
+
+        val deadline = System.currentTimeMillis() + 10_000
+        while (map.size > kept.size && System.currentTimeMillis() < deadline) {
+            System.gc()
+            Thread.sleep(10)
+        }
+
+        assertEquals(kept.size, map.size)
+        kept.forEachIndexed { index, key -> assertEquals("kept $index", map[key]) }
+    }
+
+    @Test
+    fun test_02_ConcurrentRetrievalsShareRegistries() {
+        val map = WeakIdentityMap<Any, Any>()
+        val keys = List(1_000) { Any() }
+        val executor = Executors.newFixedThreadPool(16)
+        try {
+            val tasks = List(16) { thread ->
+                Callable { keys.indices.map { (it + thread * 61) % keys.size }.associateWith { map.getOrPut(keys[it]) { Any() } } }
+            }
+            val results = executor.invokeAll(tasks, 30, TimeUnit.SECONDS).map { it.get() }
+            keys.indices.forEach { index ->
+                assertTrue(results.all { it[index] === results[0][index] })
+            }
+            assertEquals(keys.size, map.size)
+        } finally {
+            executor.shutdown()
+        }
+    }
+}
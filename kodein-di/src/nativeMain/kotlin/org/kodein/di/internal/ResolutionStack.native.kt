@@ -0,0 +1,8 @@
+package org.kodein.di.internal
+
+import kotlin.native.concurrent.ThreadLocal
+
+@ThreadLocal
+private val threadResolutionStack = ResolutionStack()
+
+internal actual fun resolutionStack(): ResolutionStack = threadResolutionStack
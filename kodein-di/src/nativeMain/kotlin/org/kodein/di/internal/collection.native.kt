@@ -1,5 +1,10 @@
 package org.kodein.di.internal
 
+import kotlin.experimental.ExperimentalNativeApi
+import kotlin.native.identityHashCode as nativeIdentityHashCode
+
 internal actual fun <K, V> newConcurrentMap(): MutableMap<K, V> = HashMap()
 internal actual fun <T> newLinkedList(): MutableList<T> = ArrayList()
 internal actual fun <T> newLinkedList(c: Collection<T>): MutableList<T> = ArrayList(c)
+@OptIn(ExperimentalNativeApi::class)
+internal actual fun identityHashCode(value: Any?): Int = value.nativeIdentityHashCode()
@@ -20,7 +20,10 @@ include(
     ":test-utils",
     ":kodein-di",
     ":kodein-di-conf",
+    ":kodein-di-coroutines",
     ":kodein-di-jxinject-jvm",
+    ":kodein-di-jxinject-processor-jvm",
+    ":kodein-di-benchmark-jvm",
 )
 
 // TODO: WIP - Disabled to avoid breaking CI workflow